@@ -5,6 +5,7 @@
 plugins {
     `java-library`
     `maven-publish`
+    alias(libs.plugins.me.champeau.jmh)
 }
 
 
@@ -34,6 +35,16 @@ repositories {
 dependencies {
     compileOnly(libs.io.papermc.paper.paper.api)
     compileOnly(libs.com.github.retrooper.packetevents.spigot)
+    // Provided by the server; used by the built-in packet injector when PacketEvents is absent
+    compileOnly(libs.io.netty.netty.transport)
+
+    // Benchmarks run without a server; Adventure from the Paper API is used as-is, Bukkit and packet types are stubbed.
+    jmh(libs.io.papermc.paper.paper.api)
+
+    // Tests cover the code that runs without a server: timers, records and rate limits.
+    testImplementation(libs.io.papermc.paper.paper.api)
+    testImplementation(libs.org.junit.jupiter.junit.jupiter)
+    testRuntimeOnly(libs.org.junit.platform.junit.platform.launcher)
 }
 
 group = "me.honeyberries"
@@ -47,6 +58,16 @@ publishing {
     }
 }
 
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
+
 tasks.withType<JavaCompile>() {
     options.encoding = "UTF-8"
 }
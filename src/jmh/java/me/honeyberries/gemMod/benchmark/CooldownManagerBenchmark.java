@@ -0,0 +1,101 @@
+package me.honeyberries.gemMod.benchmark;
+
+import me.honeyberries.gemMod.manager.GemManager.GemType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Measures {@code CooldownManager#getRemainingCooldown} over all players, as the action bar tasks do every tick.
+ * <p>
+ * The {@code legacy} benchmark uses the old nested {@link ConcurrentHashMap} layout with boxed wall-clock expiry
+ * times, the {@code table} one the per-player {@link AtomicLongArray} on the monotonic clock.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CooldownManagerBenchmark {
+
+    @Param({"20", "200"})
+    public int players;
+
+    private static final GemType[] GEM_TYPES = GemType.values();
+
+    private UUID[] playerIds;
+    private final Map<UUID, Map<GemType, Long>> cooldowns = new ConcurrentHashMap<>();
+    private final Map<UUID, AtomicLongArray> tables = new ConcurrentHashMap<>();
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        playerIds = new UUID[players];
+        long now = System.currentTimeMillis();
+        long nanoNow = System.nanoTime();
+        for (int i = 0; i < players; i++) {
+            playerIds[i] = new UUID(random.nextLong(), random.nextLong());
+            // Half the players have an active cooldown, like a busy fight.
+            if (i % 2 == 0) {
+                Map<GemType, Long> playerCooldowns = cooldowns.computeIfAbsent(playerIds[i], k -> new ConcurrentHashMap<>());
+                playerCooldowns.put(GEM_TYPES[i % GEM_TYPES.length], now + 60_000);
+                AtomicLongArray table = tables.computeIfAbsent(playerIds[i], k -> new AtomicLongArray(GEM_TYPES.length));
+                table.set(i % GEM_TYPES.length, nanoNow + TimeUnit.SECONDS.toNanos(60));
+            }
+        }
+    }
+
+    @Benchmark
+    public void legacyGetRemainingCooldown(Blackhole blackhole) {
+        for (int i = 0; i < playerIds.length; i++) {
+            blackhole.consume(legacyRemaining(playerIds[i], GEM_TYPES[i % GEM_TYPES.length]));
+        }
+    }
+
+    @Benchmark
+    public void tableGetRemainingCooldown(Blackhole blackhole) {
+        for (int i = 0; i < playerIds.length; i++) {
+            blackhole.consume(tableRemaining(playerIds[i], GEM_TYPES[i % GEM_TYPES.length]));
+        }
+    }
+
+    private long legacyRemaining(UUID uuid, GemType gemType) {
+        Map<GemType, Long> playerCooldowns = cooldowns.get(uuid);
+        if (playerCooldowns == null) {
+            return 0;
+        }
+        Long expiry = playerCooldowns.get(gemType);
+        long now = System.currentTimeMillis();
+        return (expiry != null && now < expiry) ? expiry - now : 0;
+    }
+
+    private long tableRemaining(UUID uuid, GemType gemType) {
+        AtomicLongArray table = tables.get(uuid);
+        if (table == null) {
+            return 0;
+        }
+        long expiry = table.get(gemType.ordinal());
+        if (expiry == 0) {
+            return 0;
+        }
+        long remaining = expiry - System.nanoTime();
+        return remaining > 0 ? TimeUnit.NANOSECONDS.toMillis(remaining) : 0;
+    }
+}
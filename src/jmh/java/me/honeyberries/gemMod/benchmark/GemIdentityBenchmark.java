@@ -0,0 +1,97 @@
+package me.honeyberries.gemMod.benchmark;
+
+import me.honeyberries.gemMod.manager.GemManager.GemType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code identifyGemType} and {@code createGem}, before and after tagging and prototypes.
+ * <p>
+ * The {@code legacy} benchmarks build every gem type and compare it with {@code isSimilar},
+ * the {@code tagged} ones check the material and read the type tag.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GemIdentityBenchmark {
+
+    private StubItemStack gem;
+    private StubItemStack plainDiamond;
+    private StubItemStack stone;
+    private Map<GemType, StubItemStack> prototypes;
+
+    @Setup
+    public void setup() {
+        gem = GemStubs.buildGem(GemType.WATER, 1, true);
+        plainDiamond = new StubItemStack(GemStubs.DIAMOND, 1, new HashMap<>(), new HashMap<>());
+        stone = new StubItemStack("STONE", 64, new HashMap<>(), new HashMap<>());
+        prototypes = GemStubs.buildPrototypes();
+    }
+
+    @Benchmark
+    public GemType legacyIdentifyHit() {
+        return legacyIdentify(gem);
+    }
+
+    @Benchmark
+    public GemType legacyIdentifyMiss() {
+        return legacyIdentify(stone);
+    }
+
+    @Benchmark
+    public GemType taggedIdentifyHit() {
+        return taggedIdentify(gem);
+    }
+
+    @Benchmark
+    public GemType taggedIdentifyMiss() {
+        return taggedIdentify(stone);
+    }
+
+    @Benchmark
+    public GemType taggedIdentifyPlainDiamond() {
+        return taggedIdentify(plainDiamond);
+    }
+
+    @Benchmark
+    public StubItemStack legacyCreateGem() {
+        return GemStubs.buildGem(GemType.FIRE, 16, true);
+    }
+
+    @Benchmark
+    public StubItemStack prototypeCreateGem() {
+        return prototypes.get(GemType.FIRE).copy(16);
+    }
+
+    private static GemType legacyIdentify(StubItemStack item) {
+        for (GemType gemType : GemType.values()) {
+            if (item.isSimilar(GemStubs.buildGem(gemType, 1, true))) {
+                return gemType;
+            }
+        }
+        return null;
+    }
+
+    private static GemType taggedIdentify(StubItemStack item) {
+        if (!GemStubs.DIAMOND.equals(item.material)) {
+            return null;
+        }
+        Object typeName = item.persistentData.get("gemmod:gem_type");
+        return typeName != null ? GemType.valueOf((String) typeName) : null;
+    }
+}
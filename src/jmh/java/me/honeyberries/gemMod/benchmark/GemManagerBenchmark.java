@@ -0,0 +1,78 @@
+package me.honeyberries.gemMod.benchmark;
+
+import me.honeyberries.gemMod.manager.GemManager.GemType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-tick cost of one passive task checking every online player for a gem.
+ * <p>
+ * {@code scan} repeats the original {@code hasGem}: build a gem and walk the inventory with
+ * {@code containsAtLeast}. {@code indexed} is the holdings index lookup. One operation covers
+ * all players, so the score is "ticks per second" one task could sustain on its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GemManagerBenchmark {
+
+    @Param({"9", "36", "41"})
+    public int inventorySize;
+
+    @Param({"20", "200"})
+    public int players;
+
+    private StubItemStack[][] inventories;
+    private UUID[] playerIds;
+    private final Map<UUID, Integer> holdings = new ConcurrentHashMap<>();
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        inventories = new StubItemStack[players][];
+        playerIds = new UUID[players];
+        for (int i = 0; i < players; i++) {
+            // Every tenth player carries the gem, like a real server where few players hold one.
+            GemType gem = i % 10 == 0 ? GemType.EARTH : null;
+            inventories[i] = GemStubs.buildInventory(inventorySize, gem, random);
+            playerIds[i] = new UUID(random.nextLong(), random.nextLong());
+            holdings.put(playerIds[i], gem != null ? 1 << gem.ordinal() : 0);
+        }
+    }
+
+    @Benchmark
+    public void scanHasGem(Blackhole blackhole) {
+        for (StubItemStack[] inventory : inventories) {
+            StubItemStack gem = GemStubs.buildGem(GemType.EARTH, 1, true);
+            blackhole.consume(GemStubs.containsAtLeast(inventory, gem, 1));
+        }
+    }
+
+    @Benchmark
+    public void indexedHasGem(Blackhole blackhole) {
+        int bit = 1 << GemType.EARTH.ordinal();
+        for (UUID playerId : playerIds) {
+            Integer mask = holdings.get(playerId);
+            blackhole.consume(mask != null && (mask & bit) != 0);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package me.honeyberries.gemMod.benchmark;
+
+import me.honeyberries.gemMod.manager.GemManager.GemType;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextColor;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Builds stand-in gems and inventories that follow the same steps as the plugin code.
+ * <p>
+ * {@link #buildGem(GemType, int, boolean)} repeats the work of building a gem from scratch,
+ * including parsing hex colours and building lore components with Adventure.
+ */
+final class GemStubs {
+
+    static final String DIAMOND = "DIAMOND";
+
+    private static final String[] FILLER = {"STONE", "DIRT", "OAK_LOG", "COBBLESTONE", "BREAD", "TORCH", "IRON_INGOT", "DIAMOND"};
+
+    private GemStubs() {}
+
+    /**
+     * Builds a gem the way {@code GemRegistry#buildPrototype} does, optionally with its type tag.
+     */
+    static StubItemStack buildGem(GemType gemType, int amount, boolean tagged) {
+        Map<String, Object> meta = new HashMap<>();
+        String name = gemType.name().charAt(0) + gemType.name().substring(1).toLowerCase() + " Gem";
+        meta.put("item_name", Component.text(name).color(TextColor.fromHexString("#3fd41e")));
+        meta.put("lore", List.of(
+                Component.text("First lore line for " + name).color(TextColor.fromHexString("#4cd69b")),
+                Component.text("Second lore line for " + name).color(TextColor.fromHexString("#72d132"))
+        ));
+        meta.put("enchantments", Map.of("mending", 1));
+        meta.put("item_flags", List.of("HIDE_ENCHANTS"));
+        meta.put("custom_model_data", gemType.name().toLowerCase() + "gem");
+
+        Map<String, Object> persistentData = new HashMap<>();
+        if (tagged) {
+            persistentData.put("gemmod:gem_type", gemType.name());
+            persistentData.put("gemmod:gem_version", 2);
+        }
+        return new StubItemStack(DIAMOND, amount, meta, persistentData);
+    }
+
+    /**
+     * Builds one tagged prototype per gem type.
+     */
+    static Map<GemType, StubItemStack> buildPrototypes() {
+        Map<GemType, StubItemStack> prototypes = new EnumMap<>(GemType.class);
+        for (GemType gemType : GemType.values()) {
+            prototypes.put(gemType, buildGem(gemType, 1, true));
+        }
+        return prototypes;
+    }
+
+    /**
+     * Builds a full inventory of filler items, with a gem of the given type in the last slot if requested.
+     */
+    static StubItemStack[] buildInventory(int size, GemType gem, Random random) {
+        StubItemStack[] slots = new StubItemStack[size];
+        for (int i = 0; i < size; i++) {
+            String material = FILLER[random.nextInt(FILLER.length)];
+            Map<String, Object> meta = new HashMap<>();
+            if (material.equals(DIAMOND)) {
+                meta.put("custom_name", "Shiny rock");
+            }
+            slots[i] = new StubItemStack(material, 1 + random.nextInt(64), meta, new HashMap<>());
+        }
+        if (gem != null) {
+            slots[size - 1] = buildGem(gem, 1, true);
+        }
+        return slots;
+    }
+
+    /**
+     * Mirrors {@code Inventory#containsAtLeast}: walks every slot comparing against the template.
+     */
+    static boolean containsAtLeast(StubItemStack[] slots, StubItemStack template, int amount) {
+        int found = 0;
+        for (StubItemStack slot : slots) {
+            if (slot != null && slot.isSimilar(template)) {
+                found += slot.amount;
+                if (found >= amount) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
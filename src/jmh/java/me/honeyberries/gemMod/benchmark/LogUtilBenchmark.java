@@ -0,0 +1,66 @@
+package me.honeyberries.gemMod.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code LogUtil#verbose} with verbose logging turned off, as on a production server.
+ * <p>
+ * Callers format their message before the flag is checked, so the formatting is paid even
+ * when nothing is logged. The {@code guarded} benchmark checks the flag first for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogUtilBenchmark {
+
+    /** Stand-in for {@code GemModData#isVerboseLoggingEnabled()}, a volatile flag read. */
+    private volatile boolean verboseLogging;
+
+    private String playerName;
+    private long remainingMillis;
+
+    @Setup
+    public void setup() {
+        verboseLogging = false;
+        playerName = "HoneyBerries";
+        remainingMillis = 42_000;
+    }
+
+    @Benchmark
+    public void concatenated(Blackhole blackhole) {
+        verbose("Player " + playerName + " attempting to use Air Gem ability", blackhole);
+    }
+
+    @Benchmark
+    public void formatted(Blackhole blackhole) {
+        verbose(String.format("%s on cooldown for %s: %ds remaining", "Double jump", playerName, remainingMillis / 1000), blackhole);
+    }
+
+    @Benchmark
+    public void guarded(Blackhole blackhole) {
+        if (verboseLogging) {
+            verbose(String.format("%s on cooldown for %s: %ds remaining", "Double jump", playerName, remainingMillis / 1000), blackhole);
+        }
+    }
+
+    private void verbose(String msg, Blackhole blackhole) {
+        if (verboseLogging) {
+            blackhole.consume(msg);
+        }
+    }
+}
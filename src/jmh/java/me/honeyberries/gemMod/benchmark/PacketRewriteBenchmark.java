@@ -0,0 +1,135 @@
+package me.honeyberries.gemMod.benchmark;
+
+import me.honeyberries.gemMod.packet.MetadataRewriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the Light Gem glow rewrite of one player metadata packet on each packet backend.
+ * <p>
+ * The {@code netty} benchmarks run {@link MetadataRewriter} against records shaped like the server's packet,
+ * as the built-in injector does. PacketEvents cannot start without a server, so the {@code packetEvents}
+ * benchmarks model its path instead: read the encoded entries into wrapper objects, set the bit, and write
+ * them out again for the re-encode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketRewriteBenchmark {
+
+    private static final byte GLOWING_FLAG = 0x40;
+    private static final Object BYTE_SERIALIZER = new Object();
+    private static final Object FLOAT_SERIALIZER = new Object();
+
+    /** Stand-in for {@code ClientboundSetEntityDataPacket}. */
+    public record StubSetEntityDataPacket(int id, List<StubDataValue> packedItems) {
+    }
+
+    /** Stand-in for {@code SynchedEntityData.DataValue}. */
+    public record StubDataValue(int id, Object serializer, Object value) {
+    }
+
+    /** Stand-in for a PacketEvents metadata entry. */
+    private record ModelEntry(int index, int type, Object value) {
+    }
+
+    private MetadataRewriter rewriter;
+    private StubSetEntityDataPacket packet;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws Exception {
+        rewriter = MetadataRewriter.forClasses(StubSetEntityDataPacket.class, StubDataValue.class);
+        // Flags, air supply and health, as in a typical player update
+        packet = new StubSetEntityDataPacket(42, List.of(
+                new StubDataValue(0, BYTE_SERIALIZER, (byte) 0x02),
+                new StubDataValue(1, FLOAT_SERIALIZER, 300f),
+                new StubDataValue(9, FLOAT_SERIALIZER, 20f)));
+        encoded = encodeStub(packet);
+    }
+
+    @Benchmark
+    public Object nettyRewrite() throws Throwable {
+        return rewriter.withFlags(packet, GLOWING_FLAG, null);
+    }
+
+    @Benchmark
+    public Object nettyCreateFlags() throws Throwable {
+        return rewriter.createFlagsPacket(42, BYTE_SERIALIZER, (byte) (0x02 | GLOWING_FLAG));
+    }
+
+    @Benchmark
+    public byte[] packetEventsRewrite() throws IOException {
+        List<ModelEntry> entries = decode(encoded);
+        for (int i = 0; i < entries.size(); i++) {
+            ModelEntry entry = entries.get(i);
+            if (entry.index() == 0 && entry.value() instanceof Byte flags) {
+                entries.set(i, new ModelEntry(0, entry.type(), (byte) (flags | GLOWING_FLAG)));
+            }
+        }
+        return encode(42, entries);
+    }
+
+    @Benchmark
+    public byte[] packetEventsCreateFlags() throws IOException {
+        return encode(42, List.of(new ModelEntry(0, 0, (byte) (0x02 | GLOWING_FLAG))));
+    }
+
+    private static byte[] encodeStub(StubSetEntityDataPacket packet) throws IOException {
+        List<ModelEntry> entries = new ArrayList<>();
+        for (StubDataValue value : packet.packedItems()) {
+            entries.add(new ModelEntry(value.id(), value.serializer() == BYTE_SERIALIZER ? 0 : 3, value.value()));
+        }
+        return encode(packet.id(), entries);
+    }
+
+    private static byte[] encode(int entityId, List<ModelEntry> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(entityId);
+        for (ModelEntry entry : entries) {
+            out.writeByte(entry.index());
+            out.writeByte(entry.type());
+            if (entry.type() == 0) {
+                out.writeByte((Byte) entry.value());
+            } else {
+                out.writeFloat((Float) entry.value());
+            }
+        }
+        out.writeByte(0xFF);
+        return bytes.toByteArray();
+    }
+
+    private static List<ModelEntry> decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        in.readInt();
+        List<ModelEntry> entries = new ArrayList<>();
+        int index;
+        while ((index = in.readUnsignedByte()) != 0xFF) {
+            int type = in.readUnsignedByte();
+            Object value = type == 0 ? (Object) in.readByte() : (Object) in.readFloat();
+            entries.add(new ModelEntry(index, type, value));
+        }
+        return entries;
+    }
+}
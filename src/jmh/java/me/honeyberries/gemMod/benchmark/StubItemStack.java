@@ -0,0 +1,44 @@
+package me.honeyberries.gemMod.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Server-independent stand-in for a Bukkit {@code ItemStack}.
+ * <p>
+ * A real {@code ItemStack} needs a running server to create its meta, so benchmarks use this
+ * stand-in instead. It keeps the parts that matter for cost: a material, an amount, a meta map
+ * compared deeply by {@link #isSimilar(StubItemStack)} and a persistent data map.
+ */
+final class StubItemStack {
+
+    final String material;
+    int amount;
+    final Map<String, Object> meta;
+    final Map<String, Object> persistentData;
+
+    StubItemStack(String material, int amount, Map<String, Object> meta, Map<String, Object> persistentData) {
+        this.material = material;
+        this.amount = amount;
+        this.meta = meta;
+        this.persistentData = persistentData;
+    }
+
+    /**
+     * Mirrors {@code ItemStack#isSimilar}: everything but the amount must match.
+     */
+    boolean isSimilar(StubItemStack other) {
+        return other != null
+                && material.equals(other.material)
+                && Objects.equals(meta, other.meta)
+                && Objects.equals(persistentData, other.persistentData);
+    }
+
+    /**
+     * Mirrors {@code ItemStack#clone} followed by {@code setAmount}.
+     */
+    StubItemStack copy(int amount) {
+        return new StubItemStack(material, amount, new HashMap<>(meta), new HashMap<>(persistentData));
+    }
+}
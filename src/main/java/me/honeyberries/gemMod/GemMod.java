@@ -3,21 +3,37 @@ package me.honeyberries.gemMod;
 import com.github.retrooper.packetevents.PacketEvents;
 import io.github.retrooper.packetevents.factory.spigot.SpigotPacketEventsBuilder;
 import io.papermc.paper.plugin.lifecycle.event.types.LifecycleEvents;
+import me.honeyberries.gemMod.ability.AbilityRegistry;
 import me.honeyberries.gemMod.command.GemCommand;
 import me.honeyberries.gemMod.command.GemModCommand;
 import me.honeyberries.gemMod.configuration.GemModData;
+import me.honeyberries.gemMod.configuration.TimerStore;
+import me.honeyberries.gemMod.configuration.TimerStore.TimerRecord;
 import me.honeyberries.gemMod.listener.*;
+import me.honeyberries.gemMod.manager.CooldownManager;
+import me.honeyberries.gemMod.manager.EquipmentMaskManager;
+import me.honeyberries.gemMod.manager.GemHoldingsManager;
+import me.honeyberries.gemMod.manager.GemRegistry;
+import me.honeyberries.gemMod.manager.LightGemGlowManager;
+import me.honeyberries.gemMod.manager.PassivePerkManager;
+import me.honeyberries.gemMod.packet.EncodedPacketCache;
+import me.honeyberries.gemMod.packet.NettyInjectorBackend;
+import me.honeyberries.gemMod.packet.PacketBackend;
+import me.honeyberries.gemMod.packet.PacketEventsBackend;
 import me.honeyberries.gemMod.recipe.GemRecipe;
 import me.honeyberries.gemMod.task.*;
 import me.honeyberries.gemMod.util.LogUtil;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.InputStream;
 import java.net.URI;
 import java.security.MessageDigest;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -32,7 +48,12 @@ public final class GemMod extends JavaPlugin {
 
     @Override
     public void onLoad() {
-        // Initialize the PacketEvents API
+        // Initialize the PacketEvents API if it is installed; the built-in injector is used otherwise
+        if (!isPacketEventsInstalled()) {
+            LogUtil.info("PacketEvents not found, packet features will use the built-in Netty injector");
+            setFeatureEnabled("packetEvents", false);
+            return;
+        }
         LogUtil.info("Initializing PacketEvents API...");
         registerComponent("packetEvents", "PacketEvents API loaded successfully pre-enable", () -> {
             PacketEvents.setAPI(SpigotPacketEventsBuilder.build(this));
@@ -61,12 +82,19 @@ public final class GemMod extends JavaPlugin {
             registerComponent("packetEventsInit", "PacketEvents API ready", () -> PacketEvents.getAPI().init());
         }
 
+        // Build gem prototypes before anything hands out gems
+        registerComponent("gemRegistry", "Gem prototypes built", GemRegistry::reload);
+        registerComponent("abilities", "Gem abilities compiled", AbilityRegistry::reload);
+
         // Register components
         registerCommands();
         registerEventListeners();
         registerRecipes();
         scheduleTasks();
 
+        // Bring back the timers of players who were online when the plugin was last disabled
+        registerComponent("timerStore", "Player timers restored", this::restoreTimers);
+
         // Log which features were successfully enabled
         logEnabledFeatures();
 
@@ -85,9 +113,32 @@ public final class GemMod extends JavaPlugin {
             LogUtil.severe("Error cancelling tasks: " + e.getMessage());
         }
 
+        // Save the timers of everyone online to a single snapshot, after any pending saves
+        try {
+            TimerStore timerStore = TimerStore.getInstance();
+            Map<UUID, TimerRecord> online = new HashMap<>();
+            for (Player player : getServer().getOnlinePlayers()) {
+                online.put(player.getUniqueId(), timerStore.capture(player.getUniqueId(), false));
+            }
+            timerStore.close(online);
+        } catch (Exception e) {
+            LogUtil.severe("Error saving player timers: " + e.getMessage());
+        }
+
+        // Detach the packet backend from player connections
+        PacketBackend packetBackend = LightGemGlowManager.getInstance().getBackend();
+        if (packetBackend != null) {
+            try {
+                packetBackend.disable();
+            } catch (Exception e) {
+                LogUtil.severe("Error disabling packet backend: " + e.getMessage());
+            }
+        }
+
         // Disable the PacketEvents API if it was enabled
         if (isFeatureEnabled("packetEvents")) {
             try {
+                EncodedPacketCache.getInstance().clear();
                 PacketEvents.getAPI().terminate();
                 LogUtil.info("PacketEvents API terminated");
             } catch (Exception e) {
@@ -120,14 +171,28 @@ public final class GemMod extends JavaPlugin {
         registerComponent("gemUsage", "Registered GemUsageListener",
                 () -> getServer().getPluginManager().registerEvents(new GemUsageListener(), this));
 
-        registerComponent("airGem", "Registered AirGemListener",
-                () -> getServer().getPluginManager().registerEvents(new AirGemListener(), this));
+        registerComponent("passiveDamage", "Registered PassiveDamageListener",
+                () -> getServer().getPluginManager().registerEvents(new PassiveDamageListener(), this));
 
         registerComponent("darknessGem", "Registered DarknessGemListener",
                 () -> getServer().getPluginManager().registerEvents(new DarknessGemListener(), this));
 
         registerComponent("gemCrafting", "Registered GemCraftListener",
                 () -> getServer().getPluginManager().registerEvents(new GemCraftListener(), this));
+
+        registerComponent("gemMigration", "Registered GemMigrationListener",
+                () -> getServer().getPluginManager().registerEvents(new GemMigrationListener(), this));
+
+        registerComponent("waterGemFreeze", "Registered FreezeListener",
+                () -> getServer().getPluginManager().registerEvents(new FreezeListener(), this));
+
+        registerComponent("playerSession", "Registered PlayerSessionListener",
+                () -> getServer().getPluginManager().registerEvents(new PlayerSessionListener(), this));
+
+        registerComponent("gemHoldings", "Registered GemHoldingsListener and indexed online players", () -> {
+            getServer().getPluginManager().registerEvents(new GemHoldingsListener(), this);
+            GemHoldingsManager.getInstance().trackOnlinePlayers();
+        });
     }
 
     private void registerRecipes() {
@@ -137,15 +202,50 @@ public final class GemMod extends JavaPlugin {
 
     private void scheduleTasks() {
         LogUtil.info("Scheduling recurring tasks...");
-        registerComponent("earthGemTask", "Started Earth Gem task", EarthGemTask::startEarthGemTask);
-        registerComponent("fireGemTask", "Started Fire Gem task", FireGemTask::startFireGemTask);
-        registerComponent("waterGemTask", "Started Water Gem task", WaterGemTask::startWaterGemTask);
-
-        if (isFeatureEnabled("packetEvents")) {
-            registerComponent("lightGemTask", "Started Light Gem task", LightGemTask::startLightGemTask);
+        registerComponent("cooldownExpiry", "Started cooldown expiry wheel", () -> CooldownManager.getInstance().startExpiryWheel());
+        registerComponent("cooldownHud", "Started cooldown HUD ticker", () -> CooldownManager.getInstance().startHudTicker());
+        if (GemModData.isPotionPassivesEnabled()) {
+            registerComponent("passiveEffectTask", "Started passive effect task", PassiveEffectTask::startPassiveEffectTask);
         } else {
-            LogUtil.warn("Skipping Light Gem task: PacketEvents is not enabled.");
-            setFeatureEnabled("lightGem", false);
+            registerComponent("attributePassives", "Enabled edge-triggered attribute passives",
+                    () -> PassivePerkManager.getInstance().enableAttributePassives());
+        }
+
+        PacketBackend packetBackend = isFeatureEnabled("packetEvents") ? new PacketEventsBackend() : new NettyInjectorBackend();
+        registerComponent("lightGemGlow", "Enabled Light Gem glow using the " + packetBackend.getName() + " packet backend", () -> {
+            try {
+                packetBackend.enable();
+            } catch (Exception e) {
+                throw new IllegalStateException(packetBackend.getName() + " is not supported on this server: " + e, e);
+            }
+            getServer().getPluginManager().registerEvents(new PlayerTrackingListener(), this);
+            LightGemGlowManager.getInstance().enable(packetBackend);
+        });
+        if (isFeatureEnabled("lightGemGlow")) {
+            registerComponent("equipmentMask", "Enabled packet-level Darkness Gem equipment masking",
+                    () -> EquipmentMaskManager.getInstance().enable());
+        }
+    }
+
+    private void restoreTimers() {
+        TimerStore timerStore = TimerStore.getInstance();
+        timerStore.open().forEach((uuid, record) -> {
+            Player player = getServer().getPlayer(uuid);
+            if (player != null) {
+                player.getScheduler().run(this, task -> timerStore.apply(player, record), null);
+            } else {
+                // Left while the plugin was disabled; keep the timers for their next join
+                timerStore.save(uuid, record);
+            }
+        });
+    }
+
+    private boolean isPacketEventsInstalled() {
+        try {
+            Class.forName("com.github.retrooper.packetevents.PacketEvents", false, getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
         }
     }
 
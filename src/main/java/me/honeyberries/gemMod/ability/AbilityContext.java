@@ -0,0 +1,65 @@
+package me.honeyberries.gemMod.ability;
+
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The state of one ability activation, passed from step to step.
+ * <p>
+ * Each region thread reuses a single context, so activating an ability allocates none. Steps that hand
+ * work to another thread copy what they need out of it first.
+ *
+ * @author HoneyBerries
+ * @version 1.0
+ */
+public final class AbilityContext {
+
+    private Player player;
+    private LivingEntity target;
+
+    /**
+     * Prepares the context for a new activation.
+     *
+     * @param player The player using the ability.
+     */
+    void reset(Player player) {
+        this.player = player;
+        this.target = null;
+    }
+
+    /**
+     * Drops the references of the finished activation.
+     */
+    void clear() {
+        this.player = null;
+        this.target = null;
+    }
+
+    /**
+     * Returns the player using the ability.
+     *
+     * @return The player.
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Returns the entity found by a target step.
+     *
+     * @return The target, or {@code null} if no target step ran.
+     */
+    public @Nullable LivingEntity getTarget() {
+        return target;
+    }
+
+    /**
+     * Sets the entity later steps act on.
+     *
+     * @param target The target.
+     */
+    public void setTarget(LivingEntity target) {
+        this.target = target;
+    }
+}
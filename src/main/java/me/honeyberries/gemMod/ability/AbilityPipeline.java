@@ -0,0 +1,118 @@
+package me.honeyberries.gemMod.ability;
+
+import me.honeyberries.gemMod.manager.CooldownManager;
+import me.honeyberries.gemMod.manager.GemManager.GemType;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Sound;
+import org.bukkit.entity.Player;
+
+/**
+ * A gem ability compiled from {@code abilities.yml}: a cooldown check followed by a fixed array of steps.
+ * <p>
+ * Running a pipeline walks the array in order until a step fails. Pipelines are immutable and shared by all
+ * region threads; the per-activation state lives in a reused {@link AbilityContext}.
+ *
+ * @author HoneyBerries
+ * @version 1.0
+ */
+public final class AbilityPipeline {
+
+    /**
+     * One reusable context per thread running abilities.
+     */
+    private static final ThreadLocal<AbilityContext> CONTEXTS = ThreadLocal.withInitial(AbilityContext::new);
+
+    private final CooldownManager cooldownManager = CooldownManager.getInstance();
+    private final AbilityRateLimiter rateLimiter = AbilityRateLimiter.getInstance();
+    private final GemType gemType;
+    private final String name;
+    private final AbilityStep[] steps;
+
+    /**
+     * Creates a pipeline.
+     *
+     * @param gemType The gem whose cooldown gates the ability.
+     * @param name    The ability name shown in cooldown messages.
+     * @param steps   The steps, owned by the pipeline from now on.
+     */
+    AbilityPipeline(GemType gemType, String name, AbilityStep[] steps) {
+        this.gemType = gemType;
+        this.name = name;
+        this.steps = steps;
+    }
+
+    /**
+     * Uses the ability, unless it is on cooldown for a player without the bypass permission.
+     * Must be called on the player's thread.
+     *
+     * @param player The player using the gem.
+     */
+    public void run(Player player) {
+        if (isOnCooldown(player)) {
+            return;
+        }
+        AbilityContext context = CONTEXTS.get();
+        context.reset(player);
+        try {
+            for (AbilityStep step : steps) {
+                if (!step.run(context)) {
+                    return;
+                }
+            }
+        } finally {
+            context.clear();
+        }
+    }
+
+    /**
+     * Returns the gem this ability belongs to.
+     *
+     * @return The gem type.
+     */
+    public GemType getGemType() {
+        return gemType;
+    }
+
+    /**
+     * Returns the ability name shown in cooldown messages.
+     *
+     * @return The ability name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of steps after the cooldown check.
+     *
+     * @return The step count.
+     */
+    public int getStepCount() {
+        return steps.length;
+    }
+
+    /**
+     * Checks the gem's cooldown and tells the player if it blocks the ability, at most once per feedback interval.
+     *
+     * @param player The player using the gem.
+     * @return {@code true} if the ability must not run.
+     */
+    private boolean isOnCooldown(Player player) {
+        long remainingCooldown = cooldownManager.getRemainingCooldown(player, gemType);
+        if (remainingCooldown <= 0) {
+            return false;
+        }
+        if (player.hasPermission(CooldownManager.BYPASS_PERMISSION)) {
+            return false;
+        }
+
+        // Spaced out, so an autoclicker does not get a message and sound for every click
+        if (rateLimiter.tryNotify(player, gemType)) {
+            long secondsLeft = remainingCooldown / 1000;
+            player.sendMessage(Component.text(String.format("%s is on cooldown! %ds left.", name, secondsLeft), NamedTextColor.RED));
+            player.playSound(player, Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
+        }
+        return true;
+    }
+}
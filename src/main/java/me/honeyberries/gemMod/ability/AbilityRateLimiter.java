@@ -0,0 +1,149 @@
+package me.honeyberries.gemMod.ability;
+
+import me.honeyberries.gemMod.configuration.GemModData;
+import me.honeyberries.gemMod.manager.GemManager.GemType;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Drops gem activations that arrive faster than a player could mean them, before they reach an ability.
+ * <p>
+ * Each player has token buckets in one {@link AtomicLongArray}: one for all of their right-clicks with a gem,
+ * and one per gem type. A bucket is stored as the time at which it would be full again (the generic cell rate
+ * algorithm), so taking a token is a single compare-and-set on a {@link System#nanoTime()} value, without locks. The same array holds when each gem last showed its
+ * cooldown message, so denial feedback can be spaced out the same way.
+ *
+ * @author HoneyBerries
+ * @version 1.0
+ */
+public final class AbilityRateLimiter {
+
+    private static final AbilityRateLimiter INSTANCE = new AbilityRateLimiter();
+
+    /**
+     * How many interact events one deliberate click may cause: one per hand.
+     */
+    private static final int EVENTS_PER_CLICK = 2;
+
+    private static final int GEM_TYPE_COUNT = GemType.values().length;
+
+    /**
+     * The index of the bucket for all of a player's clicks; gem buckets follow, then feedback times.
+     */
+    private static final int CLICK_SLOT = 0;
+    private static final int GEM_SLOT_OFFSET = 1;
+    private static final int FEEDBACK_SLOT_OFFSET = GEM_SLOT_OFFSET + GEM_TYPE_COUNT;
+    private static final int SLOT_COUNT = FEEDBACK_SLOT_OFFSET + GEM_TYPE_COUNT;
+
+    /**
+     * Origin of the monotonic clock, so stored times are positive and 0 can mean never.
+     */
+    private static final long CLOCK_ORIGIN = System.nanoTime() - 1;
+
+    /**
+     * Mapping of player UUIDs to their buckets and feedback times.
+     */
+    private final Map<UUID, AtomicLongArray> tables = new ConcurrentHashMap<>();
+
+    private AbilityRateLimiter() {}
+
+    /**
+     * Returns the singleton instance of the AbilityRateLimiter.
+     *
+     * @return The active AbilityRateLimiter instance.
+     */
+    public static synchronized AbilityRateLimiter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Takes a token from the bucket for all of a player's right-clicks with a gem. Safe to call from any thread.
+     *
+     * @param player The player who clicked.
+     * @return {@code true} if the click may be handled; {@code false} if it must be dropped.
+     */
+    public boolean tryAcquire(Player player) {
+        long interval = intervalNanos() / EVENTS_PER_CLICK;
+        return acquire(table(player), CLICK_SLOT, now(), interval, (GemModData.getAbilityRateBurst() * EVENTS_PER_CLICK - 1) * interval);
+    }
+
+    /**
+     * Takes a token from the bucket of one gem. Safe to call from any thread.
+     *
+     * @param player  The player using the gem.
+     * @param gemType The gem used.
+     * @return {@code true} if the activation may run; {@code false} if it must be dropped.
+     */
+    public boolean tryAcquire(Player player, GemType gemType) {
+        long interval = intervalNanos();
+        return acquire(table(player), GEM_SLOT_OFFSET + gemType.ordinal(), now(), interval, (GemModData.getAbilityRateBurst() - 1) * interval);
+    }
+
+    /**
+     * Claims the right to tell a player that a gem is on cooldown, at most once per feedback interval.
+     * Safe to call from any thread.
+     *
+     * @param player  The player using the gem.
+     * @param gemType The gem on cooldown.
+     * @return {@code true} if the message and sound should be sent; {@code false} to deny silently.
+     */
+    public boolean tryNotify(Player player, GemType gemType) {
+        AtomicLongArray table = table(player);
+        int slot = FEEDBACK_SLOT_OFFSET + gemType.ordinal();
+        long now = now();
+        long last = table.get(slot);
+        if (last != 0 && now - last < TimeUnit.MILLISECONDS.toNanos(GemModData.getDenialFeedbackMillis())) {
+            return false;
+        }
+        return table.compareAndSet(slot, last, now);
+    }
+
+    /**
+     * Forgets the buckets of a player who left.
+     *
+     * @param uuid The player's UUID.
+     */
+    public void forget(UUID uuid) {
+        tables.remove(uuid);
+    }
+
+    /**
+     * Takes a token from a bucket stored as the time it is full again.
+     *
+     * @param table    The player's table.
+     * @param slot     The bucket's slot.
+     * @param now      The current clock time.
+     * @param interval The time one token takes to come back, in nanoseconds.
+     * @param burst    How far ahead of now the bucket may be drained, in nanoseconds.
+     * @return {@code true} if a token was taken.
+     */
+    static boolean acquire(AtomicLongArray table, int slot, long now, long interval, long burst) {
+        while (true) {
+            long full = table.get(slot);
+            long base = Math.max(full, now);
+            if (base - now > burst) {
+                return false;
+            }
+            if (table.compareAndSet(slot, full, base + interval)) {
+                return true;
+            }
+        }
+    }
+
+    private AtomicLongArray table(Player player) {
+        return tables.computeIfAbsent(player.getUniqueId(), uuid -> new AtomicLongArray(SLOT_COUNT));
+    }
+
+    private static long intervalNanos() {
+        return (long) (TimeUnit.SECONDS.toNanos(1) / GemModData.getAbilityRatePerSecond());
+    }
+
+    private static long now() {
+        return System.nanoTime() - CLOCK_ORIGIN;
+    }
+}
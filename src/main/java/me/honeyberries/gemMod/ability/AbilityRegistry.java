@@ -0,0 +1,140 @@
+package me.honeyberries.gemMod.ability;
+
+import me.honeyberries.gemMod.GemMod;
+import me.honeyberries.gemMod.manager.GemManager.GemType;
+import me.honeyberries.gemMod.util.LogUtil;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the compiled gem abilities, one {@link AbilityPipeline} per {@link GemType}.
+ * <p>
+ * Abilities are read from {@code abilities.yml} and compiled into an array indexed by gem type ordinal, so
+ * using a gem is an array read. Like the {@link me.honeyberries.gemMod.manager.GemRegistry}, the active
+ * registry is replaced as a whole by {@link #reload()}; abilities already running finish on the registry
+ * they started with, and a file that fails to compile leaves the active registry in place.
+ *
+ * @author HoneyBerries
+ * @version 1.0
+ */
+public final class AbilityRegistry {
+
+    private static final GemMod plugin = GemMod.getInstance();
+
+    /**
+     * The name of the ability file in the plugin's data folder.
+     */
+    private static final String FILE_NAME = "abilities.yml";
+
+    /**
+     * The active registry, with no abilities until the file is first loaded.
+     */
+    private static final AtomicReference<AbilityRegistry> CURRENT =
+            new AtomicReference<>(new AbilityRegistry(new AbilityPipeline[GemType.values().length]));
+
+    /**
+     * The ability of each gem type by ordinal, {@code null} for gems without one.
+     */
+    private final AbilityPipeline[] pipelines;
+
+    private AbilityRegistry(AbilityPipeline[] pipelines) {
+        this.pipelines = pipelines;
+    }
+
+    /**
+     * Returns the active registry.
+     *
+     * @return The active AbilityRegistry.
+     */
+    public static AbilityRegistry get() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Reads and compiles {@code abilities.yml}, writing the default file first if there is none, and
+     * atomically replaces the active registry.
+     *
+     * @return The newly active AbilityRegistry.
+     * @throws IllegalStateException If the file cannot be read or compiled; the active registry is kept.
+     */
+    public static AbilityRegistry reload() {
+        File file = new File(plugin.getDataFolder(), FILE_NAME);
+        if (!file.exists()) {
+            plugin.saveResource(FILE_NAME, false);
+        }
+
+        YamlConfiguration config = new YamlConfiguration();
+        AbilityRegistry registry;
+        try {
+            config.load(file);
+            registry = compile(config);
+        } catch (IOException | InvalidConfigurationException | IllegalArgumentException e) {
+            throw new IllegalStateException(FILE_NAME + ": " + e.getMessage(), e);
+        }
+        CURRENT.set(registry);
+        LogUtil.verbose("Compiled " + registry.size() + " gem abilities from " + FILE_NAME);
+        return registry;
+    }
+
+    /**
+     * Uses the ability of a gem. Must be called on the player's thread.
+     *
+     * @param player  The player using the gem.
+     * @param gemType The gem used.
+     * @return {@code true} if the gem has an ability; {@code false} otherwise.
+     */
+    public boolean activate(Player player, GemType gemType) {
+        AbilityPipeline pipeline = pipelines[gemType.ordinal()];
+        if (pipeline == null) {
+            return false;
+        }
+        pipeline.run(player);
+        return true;
+    }
+
+    /**
+     * Returns the number of gems with an ability.
+     *
+     * @return The ability count.
+     */
+    public int size() {
+        int count = 0;
+        for (AbilityPipeline pipeline : pipelines) {
+            if (pipeline != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static AbilityRegistry compile(ConfigurationSection config) {
+        ConfigurationSection abilities = config.getConfigurationSection("abilities");
+        if (abilities == null) {
+            throw new IllegalArgumentException("missing 'abilities' section");
+        }
+        AbilityPipeline[] pipelines = new AbilityPipeline[GemType.values().length];
+        for (String key : abilities.getKeys(false)) {
+            GemType gemType;
+            try {
+                gemType = GemType.valueOf(key.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("abilities." + key + ": unknown gem type");
+            }
+            ConfigurationSection ability = abilities.getConfigurationSection(key);
+            if (ability == null) {
+                throw new IllegalArgumentException("abilities." + key + ": must be a section");
+            }
+            String name = ability.getString("name", key);
+            AbilityStep[] steps = AbilitySteps.compile("abilities." + key, gemType, ability.getMapList("steps"));
+            pipelines[gemType.ordinal()] = new AbilityPipeline(gemType, name, steps);
+        }
+        return new AbilityRegistry(pipelines);
+    }
+}
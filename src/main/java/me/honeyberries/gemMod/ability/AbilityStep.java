@@ -0,0 +1,22 @@
+package me.honeyberries.gemMod.ability;
+
+/**
+ * One step of a compiled {@link AbilityPipeline}, such as finding a target, applying an effect or sending a message.
+ * <p>
+ * Steps are immutable and built once from {@code abilities.yml} by {@link AbilitySteps}, with every sound,
+ * potion effect and message resolved up front, so running one does not parse or look anything up.
+ *
+ * @author HoneyBerries
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface AbilityStep {
+
+    /**
+     * Runs the step on the player's thread.
+     *
+     * @param context The state of the current activation.
+     * @return {@code true} to continue with the next step, {@code false} to stop the ability.
+     */
+    boolean run(AbilityContext context);
+}
@@ -0,0 +1,419 @@
+package me.honeyberries.gemMod.ability;
+
+import io.papermc.paper.registry.RegistryAccess;
+import io.papermc.paper.registry.RegistryKey;
+import me.honeyberries.gemMod.GemMod;
+import me.honeyberries.gemMod.manager.AbilityManager;
+import me.honeyberries.gemMod.manager.CooldownManager;
+import me.honeyberries.gemMod.manager.GemManager.GemType;
+import me.honeyberries.gemMod.manager.TargetingManager;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextColor;
+import org.bukkit.Bukkit;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Sound;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Fireball;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+import org.bukkit.util.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compiles the step lists of {@code abilities.yml} into {@link AbilityStep} arrays.
+ * <p>
+ * Every setting is parsed and resolved here, once per load: sounds and potion effects are looked up in
+ * their registries, colours are parsed, and messages without placeholders become ready components.
+ * A step that acts on the target runs on the target's own thread when it lives in another region.
+ * Any invalid setting fails the whole load with its path, so a broken file never replaces working abilities.
+ *
+ * @author HoneyBerries
+ * @version 1.0
+ */
+final class AbilitySteps {
+
+    private static final GemMod plugin = GemMod.getInstance();
+    private static final CooldownManager cooldownManager = CooldownManager.getInstance();
+    private static final TargetingManager targetingManager = TargetingManager.getInstance();
+
+    private AbilitySteps() {}
+
+    /**
+     * Compiles the steps of one ability.
+     *
+     * @param path    The config path of the ability, for error messages.
+     * @param gemType The gem the ability belongs to.
+     * @param entries The raw step maps, in order.
+     * @return The compiled steps.
+     * @throws IllegalArgumentException If a step is unknown, misses a setting or uses a target it does not have.
+     */
+    static AbilityStep[] compile(String path, GemType gemType, List<Map<?, ?>> entries) {
+        AbilityStep[] steps = new AbilityStep[entries.size()];
+        boolean hasTarget = false;
+        for (int i = 0; i < steps.length; i++) {
+            Settings settings = new Settings(path + ".steps[" + i + "]", entries.get(i));
+            String type = settings.string("type");
+            steps[i] = switch (type) {
+                case "target" -> new TargetStep(settings.integer("range", 120),
+                        Component.text(settings.string("missing-message", "You must be looking at another player/mob!"), NamedTextColor.RED));
+                case "velocity" -> new VelocityStep(settings.number("speed", 1.0));
+                case "cloak" -> new CloakStep(settings.integer("duration-ticks"));
+                case "potion" -> {
+                    PotionEffect effect = new PotionEffect(potionEffectType(settings, settings.string("effect")),
+                            settings.integer("duration-ticks"), settings.integer("amplifier", 0), false, true, true);
+                    yield settings.onTarget("on", hasTarget) ? new TargetPotionStep(effect) : new PotionStep(effect);
+                }
+                case "fireball" -> new FireballStep(settings.number("speed", 3.0), (float) settings.number("yield", 1.0),
+                        settings.flag("incendiary", false));
+                case "lightning" -> {
+                    settings.requireTarget(hasTarget);
+                    yield new LightningStep(settings.number("damage", 0.0));
+                }
+                case "freeze" -> {
+                    settings.requireTarget(hasTarget);
+                    yield new FreezeStep(settings.integer("duration-ticks"));
+                }
+                case "sound" -> {
+                    Sound sound = sound(settings, settings.string("sound"));
+                    float volume = (float) settings.number("volume", 1.0);
+                    float pitch = (float) settings.number("pitch", 1.0);
+                    yield settings.onTarget("at", hasTarget) ? new TargetSoundStep(sound, volume, pitch) : new SoundStep(sound, volume, pitch);
+                }
+                case "message" -> {
+                    boolean toTarget = settings.onTarget("to", hasTarget);
+                    Message message = Message.compile(settings, settings.string("text"),
+                            color(settings, settings.string("color", "white")), color(settings, settings.string("name-color", "white")), hasTarget);
+                    yield toTarget ? new TargetMessageStep(message) : new MessageStep(message);
+                }
+                case "cooldown" -> new CooldownStep(gemType, Math.round(settings.number("seconds") * 1000));
+                default -> throw settings.error("unknown step type '" + type + "'");
+            };
+            hasTarget |= steps[i] instanceof TargetStep;
+        }
+        return steps;
+    }
+
+    private static Sound sound(Settings settings, String key) {
+        NamespacedKey soundKey = NamespacedKey.fromString(key.toLowerCase(Locale.ROOT));
+        Sound sound = soundKey != null ? RegistryAccess.registryAccess().getRegistry(RegistryKey.SOUND_EVENT).get(soundKey) : null;
+        if (sound == null) {
+            throw settings.error("unknown sound '" + key + "'");
+        }
+        return sound;
+    }
+
+    private static PotionEffectType potionEffectType(Settings settings, String key) {
+        NamespacedKey effectKey = NamespacedKey.fromString(key.toLowerCase(Locale.ROOT));
+        PotionEffectType type = effectKey != null ? RegistryAccess.registryAccess().getRegistry(RegistryKey.MOB_EFFECT).get(effectKey) : null;
+        if (type == null) {
+            throw settings.error("unknown potion effect '" + key + "'");
+        }
+        return type;
+    }
+
+    private static TextColor color(Settings settings, String value) {
+        TextColor color = value.startsWith("#")
+                ? TextColor.fromHexString(value)
+                : NamedTextColor.NAMES.value(value.toLowerCase(Locale.ROOT));
+        if (color == null) {
+            throw settings.error("unknown color '" + value + "'");
+        }
+        return color;
+    }
+
+    /**
+     * Read access to the settings of one step, with errors that name the step.
+     */
+    private record Settings(String path, Map<?, ?> values) {
+
+        String string(String key) {
+            Object value = values.get(key);
+            if (value == null) {
+                throw error("missing '" + key + "'");
+            }
+            return value.toString();
+        }
+
+        String string(String key, String fallback) {
+            Object value = values.get(key);
+            return value != null ? value.toString() : fallback;
+        }
+
+        double number(String key) {
+            if (!(values.get(key) instanceof Number number)) {
+                throw error("'" + key + "' must be a number");
+            }
+            return number.doubleValue();
+        }
+
+        double number(String key, double fallback) {
+            return values.containsKey(key) ? number(key) : fallback;
+        }
+
+        int integer(String key) {
+            if (!(values.get(key) instanceof Integer number) || number < 0) {
+                throw error("'" + key + "' must be a whole number of at least 0");
+            }
+            return number;
+        }
+
+        int integer(String key, int fallback) {
+            return values.containsKey(key) ? integer(key) : fallback;
+        }
+
+        boolean flag(String key, boolean fallback) {
+            Object value = values.get(key);
+            if (value == null) {
+                return fallback;
+            }
+            if (!(value instanceof Boolean flag)) {
+                throw error("'" + key + "' must be true or false");
+            }
+            return flag;
+        }
+
+        /**
+         * Reads whether a step is directed at the target or the player.
+         */
+        boolean onTarget(String key, boolean hasTarget) {
+            String value = string(key, "self");
+            return switch (value) {
+                case "self" -> false;
+                case "target" -> requireTarget(hasTarget);
+                default -> throw error("'" + key + "' must be self or target");
+            };
+        }
+
+        /**
+         * Fails unless an earlier step finds a target.
+         */
+        boolean requireTarget(boolean hasTarget) {
+            if (!hasTarget) {
+                throw error("needs a target step before it");
+            }
+            return true;
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(path + ": " + message);
+        }
+    }
+
+    /**
+     * A message with optional {@code {player}} and {@code {target}} names.
+     * Messages without names are a single component built at load.
+     */
+    private record Message(Component constant, Component[] literals, boolean[] targetNames, TextColor nameColor) {
+
+        static Message compile(Settings settings, String text, TextColor color, TextColor nameColor, boolean hasTarget) {
+            List<Component> literals = new ArrayList<>();
+            List<Boolean> targetNames = new ArrayList<>();
+            int start = 0;
+            while (true) {
+                int player = text.indexOf("{player}", start);
+                int target = text.indexOf("{target}", start);
+                int next = player < 0 ? target : target < 0 ? player : Math.min(player, target);
+                if (next < 0) {
+                    break;
+                }
+                literals.add(Component.text(text.substring(start, next), color));
+                targetNames.add(next == target);
+                if (next == target) {
+                    settings.requireTarget(hasTarget);
+                }
+                start = next + "{player}".length();
+            }
+            literals.add(Component.text(text.substring(start), color));
+            if (targetNames.isEmpty()) {
+                return new Message(literals.get(0), null, null, nameColor);
+            }
+            boolean[] names = new boolean[targetNames.size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = targetNames.get(i);
+            }
+            return new Message(null, literals.toArray(new Component[0]), names, nameColor);
+        }
+
+        Component render(Player player, LivingEntity target) {
+            if (constant != null) {
+                return constant;
+            }
+            TextComponent.Builder builder = Component.text().append(literals[0]);
+            for (int i = 0; i < targetNames.length; i++) {
+                builder.append(Component.text(targetNames[i] ? target.getName() : player.getName(), nameColor))
+                        .append(literals[i + 1]);
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * A step that acts on the target, on the target's thread.
+     */
+    private abstract static class OnTargetStep implements AbilityStep {
+
+        @Override
+        public final boolean run(AbilityContext context) {
+            Player player = context.getPlayer();
+            LivingEntity target = context.getTarget();
+            if (Bukkit.isOwnedByCurrentRegion(target)) {
+                apply(player, target);
+            } else {
+                target.getScheduler().run(plugin, task -> apply(player, target), null);
+            }
+            return true;
+        }
+
+        abstract void apply(Player player, LivingEntity target);
+    }
+
+    private record TargetStep(int range, Component missingMessage) implements AbilityStep {
+        @Override
+        public boolean run(AbilityContext context) {
+            LivingEntity target = targetingManager.findTarget(context.getPlayer(), range);
+            if (target == null) {
+                context.getPlayer().sendMessage(missingMessage);
+                return false;
+            }
+            context.setTarget(target);
+            return true;
+        }
+    }
+
+    private record VelocityStep(double speed) implements AbilityStep {
+        @Override
+        public boolean run(AbilityContext context) {
+            Player player = context.getPlayer();
+            player.setVelocity(player.getLocation().getDirection().multiply(speed));
+            return true;
+        }
+    }
+
+    private record CloakStep(int durationTicks) implements AbilityStep {
+        @Override
+        public boolean run(AbilityContext context) {
+            AbilityManager.applyDarknessCloak(context.getPlayer(), durationTicks);
+            return true;
+        }
+    }
+
+    private record PotionStep(PotionEffect effect) implements AbilityStep {
+        @Override
+        public boolean run(AbilityContext context) {
+            context.getPlayer().addPotionEffect(effect);
+            return true;
+        }
+    }
+
+    private static final class TargetPotionStep extends OnTargetStep {
+        private final PotionEffect effect;
+
+        private TargetPotionStep(PotionEffect effect) {
+            this.effect = effect;
+        }
+
+        @Override
+        void apply(Player player, LivingEntity target) {
+            target.addPotionEffect(effect);
+        }
+    }
+
+    private record FireballStep(double speed, float yield, boolean incendiary) implements AbilityStep {
+        @Override
+        public boolean run(AbilityContext context) {
+            Player player = context.getPlayer();
+            Vector velocity = player.getLocation().getDirection().multiply(player.getVelocity().length() + speed);
+            Fireball fireball = player.launchProjectile(Fireball.class, velocity);
+            fireball.setIsIncendiary(incendiary);
+            fireball.setYield(yield);
+            return true;
+        }
+    }
+
+    private static final class LightningStep extends OnTargetStep {
+        private final double damage;
+
+        private LightningStep(double damage) {
+            this.damage = damage;
+        }
+
+        @Override
+        void apply(Player player, LivingEntity target) {
+            target.damage(damage, player);
+            target.getWorld().strikeLightningEffect(target.getLocation());
+        }
+    }
+
+    private static final class FreezeStep extends OnTargetStep {
+        private final int durationTicks;
+
+        private FreezeStep(int durationTicks) {
+            this.durationTicks = durationTicks;
+        }
+
+        @Override
+        void apply(Player player, LivingEntity target) {
+            AbilityManager.freezeEntity(target, durationTicks);
+        }
+    }
+
+    private record SoundStep(Sound sound, float volume, float pitch) implements AbilityStep {
+        @Override
+        public boolean run(AbilityContext context) {
+            Entity player = context.getPlayer();
+            player.getWorld().playSound(player, sound, volume, pitch);
+            return true;
+        }
+    }
+
+    private static final class TargetSoundStep extends OnTargetStep {
+        private final Sound sound;
+        private final float volume;
+        private final float pitch;
+
+        private TargetSoundStep(Sound sound, float volume, float pitch) {
+            this.sound = sound;
+            this.volume = volume;
+            this.pitch = pitch;
+        }
+
+        @Override
+        void apply(Player player, LivingEntity target) {
+            target.getWorld().playSound(target, sound, volume, pitch);
+        }
+    }
+
+    private record MessageStep(Message message) implements AbilityStep {
+        @Override
+        public boolean run(AbilityContext context) {
+            context.getPlayer().sendMessage(message.render(context.getPlayer(), context.getTarget()));
+            return true;
+        }
+    }
+
+    private record TargetMessageStep(Message message) implements AbilityStep {
+        @Override
+        public boolean run(AbilityContext context) {
+            if (context.getTarget() instanceof Player target) {
+                target.sendMessage(message.render(context.getPlayer(), target));
+            }
+            return true;
+        }
+    }
+
+    private record CooldownStep(GemType gemType, long durationMillis) implements AbilityStep {
+        @Override
+        public boolean run(AbilityContext context) {
+            cooldownManager.setCooldown(context.getPlayer(), gemType, durationMillis, true);
+            return true;
+        }
+    }
+}
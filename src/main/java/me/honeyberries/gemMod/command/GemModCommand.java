@@ -5,15 +5,21 @@ import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.tree.LiteralCommandNode;
 import io.papermc.paper.command.brigadier.CommandSourceStack;
 import io.papermc.paper.command.brigadier.Commands;
+import me.honeyberries.gemMod.ability.AbilityRegistry;
 import me.honeyberries.gemMod.configuration.GemModData;
+import me.honeyberries.gemMod.manager.AdaptiveIntervalManager;
+import me.honeyberries.gemMod.manager.AdaptiveIntervalManager.TaskKind;
+import me.honeyberries.gemMod.manager.GemRegistry;
+import me.honeyberries.gemMod.manager.TargetingManager;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.command.CommandSender;
 
 /**
  * Defines and handles the execution of the /gemmod command using the Brigadier command framework.
  *
- * This command provides administrative functionalities, such as reloading the plugin's configuration
- * and displaying a help message.
+ * This command provides administrative functionalities, such as reloading the plugin's configuration,
+ * showing the current background task intervals and target lookup statistics, and displaying a help message.
  *
  * @author HoneyBerries
  * @version 1.0
@@ -36,7 +42,27 @@ public class GemModCommand {
                 .executes(context -> {
                     // Reloads the GemMod configuration and updates recipes.
                     GemModData.loadData();
+                    GemRegistry.reload();
                     context.getSource().getSender().sendMessage(Component.text("GemMod configuration reloaded and recipes updated.", NamedTextColor.GREEN));
+                    // Abilities are swapped only if the whole file compiles
+                    try {
+                        AbilityRegistry.reload();
+                        context.getSource().getSender().sendMessage(Component.text("Gem abilities reloaded.", NamedTextColor.GREEN));
+                    } catch (IllegalStateException e) {
+                        context.getSource().getSender().sendMessage(Component.text("Kept the previous gem abilities: " + e.getMessage(), NamedTextColor.RED));
+                    }
+                    return Command.SINGLE_SUCCESS;
+                }))
+            // Adds an "intervals" subcommand to show how far background tasks are stretched.
+            .then(Commands.literal("intervals")
+                .executes(context -> {
+                    sendIntervals(context.getSource().getSender());
+                    return Command.SINGLE_SUCCESS;
+                }))
+            // Adds a "targeting" subcommand to show how long ability target lookups take.
+            .then(Commands.literal("targeting")
+                .executes(context -> {
+                    sendTargeting(context.getSource().getSender());
                     return Command.SINGLE_SUCCESS;
                 }))
             // Adds a "help" subcommand to display help information.
@@ -45,13 +71,52 @@ public class GemModCommand {
                     // Sends a help message to the command sender.
                     context.getSource().getSender().sendMessage(Component.text("---------- GemMod Command Help ----------", NamedTextColor.AQUA));
                     context.getSource().getSender().sendMessage(Component.text("/gemmod reload", NamedTextColor.GOLD)
-                        .append(Component.text(" - Reload the plugin configuration and recipes", NamedTextColor.GREEN)));
+                        .append(Component.text(" - Reload the plugin configuration, recipes and abilities", NamedTextColor.GREEN)));
+                    context.getSource().getSender().sendMessage(Component.text("/gemmod intervals", NamedTextColor.GOLD)
+                        .append(Component.text(" - Show the current background task intervals", NamedTextColor.GREEN)));
+                    context.getSource().getSender().sendMessage(Component.text("/gemmod targeting", NamedTextColor.GOLD)
+                        .append(Component.text(" - Show ability target lookup statistics", NamedTextColor.GREEN)));
                     context.getSource().getSender().sendMessage(Component.text("/gemmod help", NamedTextColor.GOLD)
                         .append(Component.text(" - Show this help message", NamedTextColor.GREEN)));
                     context.getSource().getSender().sendMessage(Component.text("----------------------------------------", NamedTextColor.AQUA));
                     return Command.SINGLE_SUCCESS;
                 }));
 
+    /**
+     * Sends the interval each background task last settled on, its bounds, and the MSPT it was based on.
+     *
+     * @param sender The command sender to report to.
+     */
+    private static void sendIntervals(CommandSender sender) {
+        AdaptiveIntervalManager intervals = AdaptiveIntervalManager.getInstance();
+        sender.sendMessage(Component.text("---------- GemMod Task Intervals ----------", NamedTextColor.AQUA));
+        for (TaskKind kind : TaskKind.values()) {
+            sender.sendMessage(Component.text(kind.getConfigKey() + ": ", NamedTextColor.GOLD)
+                .append(Component.text(intervals.getLastInterval(kind) + " ticks", NamedTextColor.GREEN))
+                .append(Component.text(String.format(" (bounds %d-%d, last MSPT %.1f)",
+                    GemModData.getMinInterval(kind), GemModData.getMaxInterval(kind), intervals.getLastMspt(kind)),
+                    NamedTextColor.GRAY)));
+        }
+        sender.sendMessage(Component.text("----------------------------------------", NamedTextColor.AQUA));
+    }
+
+    /**
+     * Sends how many ability target lookups traced a ray or hit the per-tick cache, and how long the traces took.
+     *
+     * @param sender The command sender to report to.
+     */
+    private static void sendTargeting(CommandSender sender) {
+        TargetingManager targeting = TargetingManager.getInstance();
+        sender.sendMessage(Component.text("---------- GemMod Target Lookups ----------", NamedTextColor.AQUA));
+        sender.sendMessage(Component.text("Traces: ", NamedTextColor.GOLD)
+            .append(Component.text(targeting.getTraceCount(), NamedTextColor.GREEN))
+            .append(Component.text(" (cache hits " + targeting.getCacheHits() + ")", NamedTextColor.GRAY)));
+        sender.sendMessage(Component.text("Latency: ", NamedTextColor.GOLD)
+            .append(Component.text(String.format("%.1f µs average", targeting.getAverageMicros()), NamedTextColor.GREEN))
+            .append(Component.text(" (max " + targeting.getMaxMicros() + " µs)", NamedTextColor.GRAY)));
+        sender.sendMessage(Component.text("----------------------------------------", NamedTextColor.AQUA));
+    }
+
     /**
      * Builds and returns the Brigadier command structure for the /gemmod command.
      *
@@ -1,6 +1,7 @@
 package me.honeyberries.gemMod.configuration;
 
 import me.honeyberries.gemMod.GemMod;
+import me.honeyberries.gemMod.manager.AdaptiveIntervalManager.TaskKind;
 import me.honeyberries.gemMod.manager.GemManager.GemType;
 import me.honeyberries.gemMod.recipe.GemRecipe;
 import me.honeyberries.gemMod.util.LogUtil;
@@ -9,6 +10,7 @@ import org.jetbrains.annotations.NotNull;
 import java.io.File;
 import java.io.IOException;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -45,6 +47,14 @@ public class GemModData {
     // Cached config values
     private static volatile boolean verboseLogging = false;
     private static volatile String resourcePackUrl = null;
+    private static volatile boolean potionPassives = true;
+    private static volatile boolean actionBarCooldowns = false;
+    private static volatile double abilityRatePerSecond = 4.0;
+    private static volatile int abilityRateBurst = 4;
+    private static volatile long denialFeedbackMillis = 1000;
+    private static volatile double relaxedMspt = 30.0;
+    private static volatile double overloadedMspt = 50.0;
+    private static volatile Map<TaskKind, int[]> intervalBounds = Map.of();
 
     /**
      * Loads gem data from the {@code data.yml} file into memory.
@@ -73,6 +83,29 @@ public class GemModData {
                     ? configuredUrl
                     : null;
 
+            // Passive perks stay potion effects unless attribute modifiers are requested
+            potionPassives = !"attributes".equalsIgnoreCase(yamlConfig.getString("passive-mode", "potions"));
+
+            // Clients draw gem cooldowns on the item; the action bar timer is an optional fallback
+            actionBarCooldowns = yamlConfig.getBoolean("action-bar-cooldowns", false);
+
+            // Gem right-clicks beyond this rate are dropped, and cooldown messages are spaced out
+            abilityRatePerSecond = Math.max(0.1, yamlConfig.getDouble("ability-rate-limit.per-second", 4.0));
+            abilityRateBurst = Math.max(1, yamlConfig.getInt("ability-rate-limit.burst", 4));
+            denialFeedbackMillis = Math.max(0, yamlConfig.getLong("ability-rate-limit.feedback-interval-ms", 1000));
+
+            // Background task periods stretch within these bounds as the tick time rises
+            relaxedMspt = yamlConfig.getDouble("adaptive-intervals.relaxed-mspt", 30.0);
+            overloadedMspt = Math.max(relaxedMspt + 1.0, yamlConfig.getDouble("adaptive-intervals.overloaded-mspt", 50.0));
+            Map<TaskKind, int[]> bounds = new EnumMap<>(TaskKind.class);
+            for (TaskKind kind : TaskKind.values()) {
+                String path = "adaptive-intervals." + kind.getConfigKey();
+                int min = Math.max(1, yamlConfig.getInt(path + ".min", kind.getDefaultMin()));
+                int max = Math.max(min, yamlConfig.getInt(path + ".max", kind.getDefaultMax()));
+                bounds.put(kind, new int[] {min, max});
+            }
+            intervalBounds = bounds;
+
             // Load crafted status from config
             gemCraftedMap.clear();
             for (GemType type : GemType.values()) {
@@ -178,6 +211,75 @@ public class GemModData {
         return verboseLogging;
     }
 
+    /**
+     * Whether gem passives use the polling potion-effect task instead of attribute modifiers and
+     * damage immunities, according to data.yml's {@code passive-mode}. Read once at startup.
+     */
+    public static boolean isPotionPassivesEnabled() {
+        return potionPassives;
+    }
+
+    /**
+     * Whether gem cooldowns are also shown as a timer in the action bar, according to data.yml's
+     * {@code action-bar-cooldowns}. The client always draws them on the gem item itself.
+     */
+    public static boolean isActionBarCooldownsEnabled() {
+        return actionBarCooldowns;
+    }
+
+    /**
+     * How many activations of one gem a player may attempt per second, according to data.yml's
+     * {@code ability-rate-limit.per-second}.
+     */
+    public static double getAbilityRatePerSecond() {
+        return abilityRatePerSecond;
+    }
+
+    /**
+     * How many activations of one gem a player may attempt in a quick burst before the rate applies.
+     */
+    public static int getAbilityRateBurst() {
+        return abilityRateBurst;
+    }
+
+    /**
+     * The shortest time in milliseconds between two cooldown messages for the same gem.
+     */
+    public static long getDenialFeedbackMillis() {
+        return denialFeedbackMillis;
+    }
+
+    /**
+     * Tick time in milliseconds at or below which background tasks run at their minimum interval.
+     */
+    public static double getRelaxedMspt() {
+        return relaxedMspt;
+    }
+
+    /**
+     * Tick time in milliseconds at or above which background tasks run at their maximum interval.
+     * Always greater than {@link #getRelaxedMspt()}.
+     */
+    public static double getOverloadedMspt() {
+        return overloadedMspt;
+    }
+
+    /**
+     * Shortest period of a background task in ticks, used while the server has headroom.
+     */
+    public static int getMinInterval(TaskKind kind) {
+        int[] bounds = intervalBounds.get(kind);
+        return bounds != null ? bounds[0] : kind.getDefaultMin();
+    }
+
+    /**
+     * Longest period of a background task in ticks, used while the server is overloaded.
+     */
+    public static int getMaxInterval(TaskKind kind) {
+        int[] bounds = intervalBounds.get(kind);
+        return bounds != null ? bounds[1] : kind.getDefaultMax();
+    }
+
     /**
      * Configured resource pack URL from data.yml, or null if not set.
      */
@@ -0,0 +1,458 @@
+package me.honeyberries.gemMod.configuration;
+
+import me.honeyberries.gemMod.GemMod;
+import me.honeyberries.gemMod.manager.CooldownManager;
+import me.honeyberries.gemMod.manager.TimedEffectManager;
+import me.honeyberries.gemMod.util.LogUtil;
+import org.bukkit.entity.Player;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * <b>TimerStore</b> saves the cooldowns and timed effects of players who are offline or across a restart.
+ * </p>
+ * Each offline player with something still running has a small binary record in {@code timers/<uuid>.dat}:
+ * a header, then the end times of their cooldowns and effects as epoch milliseconds, indexed by enum ordinal.
+ * Records are written when a player leaves and read when they join, all on one background thread, so a save
+ * and a load for the same player always happen in order. A record is deleted as soon as it is read, so timers
+ * that were shortened or cleared while the player was online do not come back. Only a record that was read
+ * but never applied, because the player left first, is merged into the next save, keeping the later end time
+ * of each slot.
+ * </p>
+ * When the plugin is disabled, the timers of everyone online are written to a single {@code timers.snapshot}
+ * file, which is read back in one go when it is enabled again.
+ * </p>
+ */
+public class TimerStore {
+
+    /** <b>Singleton instance</b> */
+    private static final TimerStore INSTANCE = new TimerStore();
+
+    /** <b>Reference to the main plugin instance</b> */
+    private final GemMod plugin = GemMod.getInstance();
+
+    private static final int RECORD_MAGIC = 0x474D5452; // "GMTR"
+    private static final int SNAPSHOT_MAGIC = 0x474D5453; // "GMTS"
+    private static final byte FORMAT_VERSION = 1;
+
+    /**
+     * <b>The background thread all record files are read and written on.</b>
+     */
+    private ExecutorService io;
+
+    /**
+     * <b>Records read on join that were not applied to their player yet.</b>
+     */
+    private final Map<UUID, TimerRecord> unapplied = new ConcurrentHashMap<>();
+
+    /**
+     * The saved end times of one player's cooldowns and effects.
+     *
+     * @param cooldownEnds end times in epoch milliseconds by gem type ordinal, 0 for none
+     * @param effectEnds end times in epoch milliseconds by timed effect ordinal, 0 for none
+     */
+    public record TimerRecord(long[] cooldownEnds, long[] effectEnds) {
+
+        /**
+         * Builds a record from remaining times.
+         * </p>
+         *
+         * @param now the current epoch time in milliseconds
+         * @param cooldownRemaining remaining cooldown times in milliseconds
+         * @param effectRemaining remaining effect times in milliseconds
+         * @return the record.
+         */
+        public static TimerRecord fromRemaining(long now, long[] cooldownRemaining, long[] effectRemaining) {
+            return new TimerRecord(toEnds(now, cooldownRemaining), toEnds(now, effectRemaining));
+        }
+
+        /**
+         * Returns the remaining cooldown times in milliseconds, 0 for none or expired.
+         * </p>
+         *
+         * @param now the current epoch time in milliseconds
+         * @return the remaining times by gem type ordinal.
+         */
+        public long[] cooldownRemaining(long now) {
+            return toRemaining(now, cooldownEnds);
+        }
+
+        /**
+         * Returns the remaining effect times in milliseconds, 0 for none or expired.
+         * </p>
+         *
+         * @param now the current epoch time in milliseconds
+         * @return the remaining times by timed effect ordinal.
+         */
+        public long[] effectRemaining(long now) {
+            return toRemaining(now, effectEnds);
+        }
+
+        /**
+         * Checks whether nothing in the record is still running.
+         * </p>
+         *
+         * @param now the current epoch time in milliseconds
+         * @return true if every end time has passed; false otherwise.
+         */
+        public boolean isExpired(long now) {
+            for (long end : cooldownEnds) {
+                if (end > now) {
+                    return false;
+                }
+            }
+            for (long end : effectEnds) {
+                if (end > now) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Reads a record written by {@link #write(DataOutput)}.
+         * </p>
+         *
+         * @param in the input, positioned after the file header
+         * @return the record.
+         * @throws IOException if the input cannot be read
+         */
+        static TimerRecord read(DataInput in) throws IOException {
+            return new TimerRecord(readEnds(in), readEnds(in));
+        }
+
+        /**
+         * Writes the record's end times, each array prefixed with its length.
+         * </p>
+         *
+         * @param out the output, positioned after the file header
+         * @throws IOException if the output cannot be written
+         */
+        void write(DataOutput out) throws IOException {
+            writeEnds(out, cooldownEnds);
+            writeEnds(out, effectEnds);
+        }
+
+        private TimerRecord merge(TimerRecord other) {
+            return new TimerRecord(max(cooldownEnds, other.cooldownEnds), max(effectEnds, other.effectEnds));
+        }
+
+        private static long[] toEnds(long now, long[] remaining) {
+            long[] ends = new long[remaining.length];
+            for (int i = 0; i < remaining.length; i++) {
+                ends[i] = remaining[i] > 0 ? now + remaining[i] : 0;
+            }
+            return ends;
+        }
+
+        private static long[] toRemaining(long now, long[] ends) {
+            long[] remaining = new long[ends.length];
+            for (int i = 0; i < ends.length; i++) {
+                remaining[i] = Math.max(0, ends[i] - now);
+            }
+            return remaining;
+        }
+
+        private static long[] readEnds(DataInput in) throws IOException {
+            long[] ends = new long[in.readUnsignedByte()];
+            for (int i = 0; i < ends.length; i++) {
+                ends[i] = in.readLong();
+            }
+            return ends;
+        }
+
+        private static void writeEnds(DataOutput out, long[] ends) throws IOException {
+            out.writeByte(ends.length);
+            for (long end : ends) {
+                out.writeLong(end);
+            }
+        }
+
+        private static long[] max(long[] a, long[] b) {
+            long[] merged = new long[Math.max(a.length, b.length)];
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] = Math.max(i < a.length ? a[i] : 0, i < b.length ? b[i] : 0);
+            }
+            return merged;
+        }
+    }
+
+    /**
+     * Returns the singleton instance of the TimerStore.
+     * </p>
+     *
+     * @return the active TimerStore instance.
+     */
+    public static synchronized TimerStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts the background thread and reads the snapshot left by the last disable, deleting it.
+     * </p>
+     *
+     * @return the records of the players who were online at the last disable, empty if there was no snapshot.
+     */
+    public Map<UUID, TimerRecord> open() {
+        io = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GemMod Timer Store");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Path snapshotFile = getSnapshotFile();
+        Map<UUID, TimerRecord> records = new HashMap<>();
+        if (!Files.exists(snapshotFile)) {
+            return records;
+        }
+        long start = System.nanoTime();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readByte() != FORMAT_VERSION) {
+                LogUtil.warn("Ignoring timer snapshot with an unknown format");
+            } else {
+                int players = in.readInt();
+                for (int i = 0; i < players; i++) {
+                    UUID uuid = new UUID(in.readLong(), in.readLong());
+                    records.put(uuid, TimerRecord.read(in));
+                }
+            }
+        } catch (IOException e) {
+            LogUtil.severe("Failed to read timer snapshot: " + e.getMessage());
+        }
+        try {
+            Files.delete(snapshotFile);
+        } catch (IOException e) {
+            LogUtil.severe("Failed to delete timer snapshot: " + e.getMessage());
+        }
+        LogUtil.info("Restored timers of " + records.size() + " players in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        return records;
+    }
+
+    /**
+     * Finishes every pending save and writes the timers of the players still online to the snapshot file.
+     * </p>
+     *
+     * @param online the records of the players online now
+     */
+    public void close(Map<UUID, TimerRecord> online) {
+        if (io != null) {
+            io.shutdown();
+            try {
+                if (!io.awaitTermination(5, TimeUnit.SECONDS)) {
+                    LogUtil.warn("Timed out waiting for player timers to be saved");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            io = null;
+        }
+
+        long now = System.currentTimeMillis();
+        Map<UUID, TimerRecord> running = new HashMap<>();
+        online.forEach((uuid, record) -> {
+            if (!record.isExpired(now)) {
+                running.put(uuid, record);
+            }
+        });
+        if (running.isEmpty()) {
+            return;
+        }
+        Path snapshotFile = getSnapshotFile();
+        try {
+            Files.createDirectories(snapshotFile.getParent());
+            writeAtomically(snapshotFile, out -> {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeByte(FORMAT_VERSION);
+                out.writeInt(running.size());
+                for (Map.Entry<UUID, TimerRecord> entry : running.entrySet()) {
+                    out.writeLong(entry.getKey().getMostSignificantBits());
+                    out.writeLong(entry.getKey().getLeastSignificantBits());
+                    entry.getValue().write(out);
+                }
+            });
+            LogUtil.info("Saved timers of " + running.size() + " online players to the snapshot");
+        } catch (IOException e) {
+            LogUtil.severe("Failed to write timer snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Captures the running cooldowns and timed effects of a player.
+     * </p>
+     *
+     * @param uuid the player's UUID
+     * @param evict whether to drop them from memory, e.g. because the player is leaving
+     * @return the player's record.
+     */
+    public TimerRecord capture(UUID uuid, boolean evict) {
+        CooldownManager cooldownManager = CooldownManager.getInstance();
+        TimedEffectManager timedEffectManager = TimedEffectManager.getInstance();
+        long now = System.currentTimeMillis();
+        return evict
+                ? TimerRecord.fromRemaining(now, cooldownManager.evict(uuid), timedEffectManager.evict(uuid))
+                : TimerRecord.fromRemaining(now, cooldownManager.export(uuid), timedEffectManager.export(uuid));
+    }
+
+    /**
+     * Restores a player's saved cooldowns and resumes their timed effects. Must be called on the player's thread.
+     * </p>
+     *
+     * @param player the player
+     * @param record the player's saved record
+     */
+    public void apply(Player player, TimerRecord record) {
+        unapplied.remove(player.getUniqueId(), record);
+        long now = System.currentTimeMillis();
+        CooldownManager.getInstance().restore(player, record.cooldownRemaining(now));
+        TimedEffectManager.getInstance().resume(player, record.effectRemaining(now));
+    }
+
+    /**
+     * Reads a player's saved record in the background and deletes its file.
+     * The record is held until it is {@link #apply(Player, TimerRecord) applied}, so it is not lost if the player
+     * leaves before that.
+     * </p>
+     *
+     * @param uuid the player's UUID
+     * @param callback receives the record, or null if nothing is saved; runs on the background thread
+     */
+    public void load(UUID uuid, Consumer<TimerRecord> callback) {
+        submit(() -> {
+            TimerRecord record = read(uuid);
+            if (record != null) {
+                unapplied.put(uuid, record);
+                try {
+                    Files.deleteIfExists(getRecordFile(uuid));
+                } catch (IOException e) {
+                    LogUtil.severe("Failed to delete timers of " + uuid + ": " + e.getMessage());
+                }
+            }
+            callback.accept(record);
+        });
+    }
+
+    /**
+     * Saves a player's record in the background, merging it with a record that was loaded but never applied
+     * and with any file no load has consumed. The file is deleted once nothing in it is still running.
+     * </p>
+     *
+     * @param uuid the player's UUID
+     * @param record the record to save
+     */
+    public void save(UUID uuid, TimerRecord record) {
+        submit(() -> {
+            TimerRecord merged = mergeIfPresent(mergeIfPresent(record, unapplied.remove(uuid)), read(uuid));
+            Path file = getRecordFile(uuid);
+            try {
+                if (merged.isExpired(System.currentTimeMillis())) {
+                    Files.deleteIfExists(file);
+                    return;
+                }
+                Files.createDirectories(file.getParent());
+                writeAtomically(file, out -> {
+                    out.writeInt(RECORD_MAGIC);
+                    out.writeByte(FORMAT_VERSION);
+                    merged.write(out);
+                });
+            } catch (IOException e) {
+                LogUtil.severe("Failed to save timers of " + uuid + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Merges a record with another one if there is one.
+     *
+     * @param record The record.
+     * @param other  The other record, or {@code null}.
+     * @return The merged record, or {@code record} if there is no other.
+     */
+    private static TimerRecord mergeIfPresent(TimerRecord record, TimerRecord other) {
+        return other != null ? record.merge(other) : record;
+    }
+
+    /**
+     * Runs a task on the background thread, or right away if the store is closed.
+     *
+     * @param task The task to run.
+     */
+    private void submit(Runnable task) {
+        ExecutorService executor = io;
+        if (executor == null || executor.isShutdown()) {
+            task.run();
+            return;
+        }
+        executor.execute(task);
+    }
+
+    /**
+     * Reads a player's record file.
+     *
+     * @param uuid The player's UUID.
+     * @return The record, or {@code null} if there is none or it cannot be read.
+     */
+    private TimerRecord read(UUID uuid) {
+        Path file = getRecordFile(uuid);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            if (in.readInt() != RECORD_MAGIC || in.readByte() != FORMAT_VERSION) {
+                LogUtil.warn("Ignoring timers of " + uuid + " with an unknown format");
+                return null;
+            }
+            return TimerRecord.read(in);
+        } catch (IOException e) {
+            LogUtil.severe("Failed to read timers of " + uuid + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes a file through a temporary file and a rename, so a crash never leaves half a record.
+     *
+     * @param file   The file to write.
+     * @param writer Writes the contents.
+     * @throws IOException If the file cannot be written.
+     */
+    private static void writeAtomically(Path file, RecordWriter writer) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream stream = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+            writer.write(out);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path getRecordFile(UUID uuid) {
+        return plugin.getDataFolder().toPath().resolve("timers").resolve(uuid + ".dat");
+    }
+
+    private Path getSnapshotFile() {
+        return plugin.getDataFolder().toPath().resolve("timers.snapshot");
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -4,6 +4,7 @@ import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
 import me.honeyberries.gemMod.GemMod;
 import me.honeyberries.gemMod.manager.GemManager;
 import me.honeyberries.gemMod.manager.GemManager.GemType;
+import me.honeyberries.gemMod.packet.PacketBatcher;
 import me.honeyberries.gemMod.util.LogUtil;
 import org.bukkit.Color;
 import org.bukkit.Location;
@@ -38,12 +39,18 @@ public class DarknessGemListener implements Listener {
      */
     private final Integer DARKNESS_GEM_PASSIVE_EFFECT_DURATION = 5 * 20;
 
+    /**
+     * The black dust used for the particle cloud, shared by every spawn.
+     */
+    private static final Particle.DustOptions DARKNESS_DUST = new Particle.DustOptions(Color.BLACK, 2.0f);
+
     /**
      * Applies the Darkness Gem's blinding effect when a player is attacked by a gem holder.
      *
      * When a player with a Darkness Gem attacks another player, this method applies a
      * {@link PotionEffectType#BLINDNESS} effect and spawns a dense cloud of black particles
      * in front of the victim's view, severely impairing their vision for a short duration.
+     * With PacketEvents, each tick's particles are sent to the victim as a single bundle.
      *
      * @param event The {@link EntityDamageByEntityEvent} triggered upon entity damage.
      */
@@ -73,14 +80,12 @@ public class DarknessGemListener implements Listener {
                         return;
                     }
 
-                    // Create a denser cloud of darker particles
-                    Particle.DustOptions options = new Particle.DustOptions(Color.BLACK, 2.0f);
-
                     // Get the player's eye location and direction
                     Location eyeLocation = damagedPlayer.getEyeLocation();
                     Vector direction = eyeLocation.getDirection();
 
                     // Create a wall of particles in front of the player
+                    boolean batched = GemMod.getInstance().isFeatureEnabled("packetEvents");
                     for (int i = 0; i < 160; i++) {
                         // Position particles 0.5-1.5 blocks in front of the player's face
                         double distance = 0.5 + (Math.random());
@@ -91,7 +96,11 @@ public class DarknessGemListener implements Listener {
                         double z = eyeLocation.getZ() + (direction.getZ() * distance) + ((Math.random() - 0.5) * spread);
 
                         // Spawn particle only for the damaged player to see
-                        damagedPlayer.spawnParticle(Particle.DUST, x, y, z, 1, 0, 0, 0, 0, options);
+                        if (batched) {
+                            PacketBatcher.getInstance().queueDust(damagedPlayer, DARKNESS_DUST, x, y, z);
+                        } else {
+                            damagedPlayer.spawnParticle(Particle.DUST, x, y, z, 1, 0, 0, 0, 0, DARKNESS_DUST);
+                        }
                     }
                 }, null, 1L, 1);
 
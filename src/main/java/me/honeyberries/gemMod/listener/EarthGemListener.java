@@ -11,7 +11,7 @@ import me.honeyberries.gemMod.manager.GemManager.GemType;
 
 /**
  * This listener is deprecated and no longer in use.
- * Earth Gem effects are now managed by the {@link me.honeyberries.gemMod.task.EarthGemTask} class.
+ * Earth Gem effects are now managed by the {@link me.honeyberries.gemMod.task.PassiveEffectTask} class.
  *
  * @deprecated Will be removed in a future version.
  */
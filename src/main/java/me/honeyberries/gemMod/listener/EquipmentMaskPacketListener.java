@@ -0,0 +1,60 @@
+package me.honeyberries.gemMod.listener;
+
+import com.github.retrooper.packetevents.event.PacketListenerAbstract;
+import com.github.retrooper.packetevents.event.PacketListenerPriority;
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.protocol.item.ItemStack;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.Equipment;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityEquipment;
+import me.honeyberries.gemMod.manager.EquipmentMaskManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hides the equipment of Darkness Gem users while they are invisible.
+ * <p>
+ * Every outgoing equipment packet about a masked entity is rewritten to empty slots, so neither equipment
+ * changes nor the equipment sent when a viewer starts tracking the player reveal it. Packets about other
+ * entities are passed through after reading only their entity ID.
+ *
+ * @author HoneyBerries
+ * @version 1.0
+ */
+public class EquipmentMaskPacketListener extends PacketListenerAbstract {
+
+    /**
+     * A reference to the mask manager, which knows the masked entities.
+     */
+    private final EquipmentMaskManager maskManager = EquipmentMaskManager.getInstance();
+
+    /**
+     * Creates the listener at normal priority.
+     */
+    public EquipmentMaskPacketListener() {
+        super(PacketListenerPriority.NORMAL);
+    }
+
+    /**
+     * Empties the equipment slots of outgoing equipment packets about masked entities.
+     *
+     * @param event The {@link PacketSendEvent} for the outgoing packet.
+     */
+    @Override
+    public void onPacketSend(PacketSendEvent event) {
+        if (event.getPacketType() != PacketType.Play.Server.ENTITY_EQUIPMENT) {
+            return;
+        }
+        WrapperPlayServerEntityEquipment packet = new WrapperPlayServerEntityEquipment(event);
+        if (!maskManager.isMasked(packet.getEntityId())) {
+            return;
+        }
+        List<Equipment> emptied = new ArrayList<>(packet.getEquipment().size());
+        for (Equipment equipment : packet.getEquipment()) {
+            emptied.add(new Equipment(equipment.getSlot(), ItemStack.EMPTY));
+        }
+        packet.setEquipment(emptied);
+        event.markForReEncode(true);
+    }
+}
@@ -0,0 +1,62 @@
+package me.honeyberries.gemMod.listener;
+
+import me.honeyberries.gemMod.manager.FreezeManager;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.world.EntitiesLoadEvent;
+
+/**
+ * Holds players frozen by the Water Gem in place and releases mobs that were unloaded while frozen.
+ *
+ * Frozen players cannot walk or jump because of their attribute modifiers, but the client may still move them,
+ * e.g. while flying or swimming, so any horizontal or upward movement is vetoed here. Falling is allowed,
+ * as it is for frozen mobs. Moves that only turn the head cost a single check.
+ *
+ * @author HoneyBerries
+ * @version 1.0
+ */
+public class FreezeListener implements Listener {
+
+    /**
+     * A reference to the freeze manager, which knows the frozen entities.
+     */
+    private final FreezeManager freezeManager = FreezeManager.getInstance();
+
+    /**
+     * Keeps a frozen player at their position, letting them look around and fall.
+     *
+     * @param event The {@link PlayerMoveEvent} triggered when a player moves.
+     */
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        if (!event.hasChangedPosition() || !freezeManager.isFrozen(event.getPlayer().getUniqueId())) {
+            return;
+        }
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (from.getX() == to.getX() && from.getZ() == to.getZ() && to.getY() <= from.getY()) {
+            return;
+        }
+        Location clamped = from.clone();
+        clamped.setY(Math.min(from.getY(), to.getY()));
+        clamped.setYaw(to.getYaw());
+        clamped.setPitch(to.getPitch());
+        event.setTo(clamped);
+    }
+
+    /**
+     * Releases mobs that were still frozen when their chunk was unloaded.
+     *
+     * @param event The {@link EntitiesLoadEvent} triggered when a chunk's entities are loaded.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesLoad(EntitiesLoadEvent event) {
+        for (Entity entity : event.getEntities()) {
+            freezeManager.releaseStale(entity);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package me.honeyberries.gemMod.listener;
+
+import io.papermc.paper.event.player.PlayerInventorySlotChangeEvent;
+import me.honeyberries.gemMod.manager.GemHoldingsManager;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.inventory.CraftItemEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+import org.bukkit.inventory.InventoryHolder;
+
+/**
+ * Keeps the gem holdings index up to date as player inventories change.
+ * <p>
+ * Every event that can move a gem into or out of a player's inventory marks that player
+ * as dirty in the {@link GemHoldingsManager}, which rescans the inventory once on the next tick.
+ *
+ * @author HoneyBerries
+ * @version 1.0
+ */
+public class GemHoldingsListener implements Listener {
+
+    /**
+     * A reference to the holdings manager that owns the index.
+     */
+    private final GemHoldingsManager holdingsManager = GemHoldingsManager.getInstance();
+
+    /**
+     * Catches any slot change in a player's own inventory, including commands and plugin changes.
+     *
+     * @param event The {@link PlayerInventorySlotChangeEvent} triggered when a slot changes.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onSlotChange(PlayerInventorySlotChangeEvent event) {
+        holdingsManager.markDirty(event.getPlayer());
+    }
+
+    /**
+     * Rescans after a player clicks in any inventory view, including container moves.
+     *
+     * @param event The {@link InventoryClickEvent} triggered by the click.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        markDirty(event.getWhoClicked());
+    }
+
+    /**
+     * Rescans after a player drags items across slots.
+     *
+     * @param event The {@link InventoryDragEvent} triggered by the drag.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        markDirty(event.getWhoClicked());
+    }
+
+    /**
+     * Rescans when an inventory view is closed, as the cursor item is returned to the player.
+     *
+     * @param event The {@link InventoryCloseEvent} triggered when the view closes.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClose(InventoryCloseEvent event) {
+        markDirty(event.getPlayer());
+    }
+
+    /**
+     * Rescans after a gem is crafted into a player's inventory.
+     *
+     * @param event The {@link CraftItemEvent} triggered by the craft.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onCraft(CraftItemEvent event) {
+        markDirty(event.getWhoClicked());
+    }
+
+    /**
+     * Rescans when a hopper or similar block moves items out of or into a player-held inventory.
+     *
+     * @param event The {@link InventoryMoveItemEvent} triggered by the transfer.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryMove(InventoryMoveItemEvent event) {
+        InventoryHolder source = event.getSource().getHolder(false);
+        if (source instanceof Player player) {
+            holdingsManager.markDirty(player);
+        }
+        InventoryHolder destination = event.getDestination().getHolder(false);
+        if (destination instanceof Player player) {
+            holdingsManager.markDirty(player);
+        }
+    }
+
+    /**
+     * Rescans after a player picks up an item from the ground.
+     *
+     * @param event The {@link EntityPickupItemEvent} triggered by the pickup.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPickup(EntityPickupItemEvent event) {
+        if (event.getEntity() instanceof Player player) {
+            holdingsManager.markDirty(player);
+        }
+    }
+
+    /**
+     * Rescans after a player drops an item.
+     *
+     * @param event The {@link PlayerDropItemEvent} triggered by the drop.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDrop(PlayerDropItemEvent event) {
+        holdingsManager.markDirty(event.getPlayer());
+    }
+
+    /**
+     * Rescans after a player swaps items between their hands.
+     *
+     * @param event The {@link PlayerSwapHandItemsEvent} triggered by the swap.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSwapHands(PlayerSwapHandItemsEvent event) {
+        holdingsManager.markDirty(event.getPlayer());
+    }
+
+    /**
+     * Rescans after a player dies, since their inventory may have been dropped.
+     *
+     * @param event The {@link PlayerDeathEvent} triggered on death.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(PlayerDeathEvent event) {
+        holdingsManager.markDirty(event.getPlayer());
+    }
+
+    /**
+     * Rescans after a player respawns, covering kept inventories.
+     *
+     * @param event The {@link PlayerRespawnEvent} triggered on respawn.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        holdingsManager.markDirty(event.getPlayer());
+    }
+
+    /**
+     * Marks a human entity as dirty if it is a player.
+     *
+     * @param entity The entity whose inventory may have changed.
+     */
+    private void markDirty(HumanEntity entity) {
+        if (entity instanceof Player player) {
+            holdingsManager.markDirty(player);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package me.honeyberries.gemMod.listener;
+
+import me.honeyberries.gemMod.manager.GemManager;
+import org.bukkit.entity.Item;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Re-tags legacy gems and upgrades outdated ones at the points where their owner's thread holds them.
+ * <p>
+ * Identifying a gem never changes it, so old gems are migrated here instead: the joining player's
+ * inventory, every inventory a player opens, and items as they are picked up. Each event runs on the
+ * thread that owns the items it touches.
+ *
+ * @author HoneyBerries
+ * @version 1.0
+ */
+public class GemMigrationListener implements Listener {
+
+    /**
+     * Migrates the gems a player carried in when they join.
+     *
+     * @param event The {@link PlayerJoinEvent}.
+     */
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        GemManager.migrateGems(event.getPlayer().getInventory());
+    }
+
+    /**
+     * Migrates the gems in a container or ender chest as a player opens it.
+     *
+     * @param event The {@link InventoryOpenEvent}.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryOpen(InventoryOpenEvent event) {
+        GemManager.migrateGems(event.getInventory());
+    }
+
+    /**
+     * Migrates a gem before it is picked up from the ground.
+     *
+     * @param event The {@link EntityPickupItemEvent}.
+     */
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onPickup(EntityPickupItemEvent event) {
+        Item item = event.getItem();
+        ItemStack stack = item.getItemStack();
+        if (GemManager.migrateGem(stack)) {
+            item.setItemStack(stack);
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package me.honeyberries.gemMod.listener;
 
 import me.honeyberries.gemMod.GemMod;
-import me.honeyberries.gemMod.manager.AbilityManager;
-import me.honeyberries.gemMod.manager.CooldownManager;
+import me.honeyberries.gemMod.ability.AbilityRateLimiter;
+import me.honeyberries.gemMod.ability.AbilityRegistry;
+import me.honeyberries.gemMod.configuration.GemModData;
 import me.honeyberries.gemMod.manager.GemManager.GemType;
 import me.honeyberries.gemMod.manager.GemManager;
 import me.honeyberries.gemMod.util.LogUtil;
@@ -12,7 +13,6 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.inventory.EquipmentSlot;
-import org.bukkit.inventory.ItemStack;
 import org.bukkit.event.Event.Result;
 
 /**
@@ -33,16 +33,17 @@ public class GemUsageListener implements Listener {
     private final GemMod plugin = GemMod.getInstance();
 
     /**
-     * A reference to the cooldown manager for handling ability cooldowns.
+     * The rate limiter that drops excess clicks before they reach an ability.
      */
-    private final CooldownManager cooldownManager = CooldownManager.getInstance();
+    private final AbilityRateLimiter rateLimiter = AbilityRateLimiter.getInstance();
 
     /**
      * Processes player interactions to detect and trigger gem abilities.
      *
-     * This method validates that the interaction is a right-click, checks for a gem
-     * in the main hand, and prevents off-hand usage. If a valid gem is used,
-     * it cancels the event and calls the appropriate ability handler.
+     * This method validates that the interaction is a right-click, checks for a gem in the main hand,
+     * and prevents off-hand usage. If a valid gem is used, it cancels the event, drops activations beyond the
+     * {@link AbilityRateLimiter} limits, and runs the gem's ability from the {@link AbilityRegistry}.
+     * Clicks without a gem are left alone and never charged to the limiter.
      *
      * @param event The {@link PlayerInteractEvent} triggered by the player.
      */
@@ -54,8 +55,7 @@ public class GemUsageListener implements Listener {
         }
 
         Player player = event.getPlayer();
-        ItemStack mainHandItem = player.getInventory().getItemInMainHand();
-        GemType gemType = GemManager.identifyGemType(mainHandItem);
+        GemType gemType = GemManager.identifyGemType(player.getInventory().getItemInMainHand());
 
         // If the item in the main hand is not a gem, we don't need to do anything.
         if (gemType == null) {
@@ -64,29 +64,34 @@ public class GemUsageListener implements Listener {
 
         // If a gem is in the main hand, we cancel the event entirely.
         // This prevents the default use action of the gem itself and also blocks any off-hand item usage.
-        event.setUseItemInHand(Result.DENY);
-        event.setUseInteractedBlock(Result.DENY);
-        event.setCancelled(true);
+        deny(event);
 
-        // We only trigger the ability if the interaction was with the main hand.
-        if (event.getHand() != EquipmentSlot.HAND) {
+        // We only trigger the ability if the interaction was with the main hand, at a rate a player could mean.
+        // Both hands' events count towards the click bucket, so it only fills with clicks holding a gem.
+        if (!rateLimiter.tryAcquire(player) || event.getHand() != EquipmentSlot.HAND
+                || !rateLimiter.tryAcquire(player, gemType)) {
             return;
         }
 
-        LogUtil.verbose("Player " + player.getName() + " used " + gemType.name() + " gem");
+        if (GemModData.isVerboseLoggingEnabled()) {
+            LogUtil.verbose("Player " + player.getName() + " used " + gemType.name() + " gem");
+        }
 
-        // Execute the ability associated with the identified gem type.
-        switch (gemType) {
-            case AIR -> AbilityManager.handleAirGemAbility(player);
-            case DARKNESS -> AbilityManager.handleDarknessGemAbility(player);
-            case EARTH -> AbilityManager.handleEarthGemAbility(player);
-            case FIRE -> AbilityManager.handleFireGemAbility(player);
-            case LIGHT -> AbilityManager.handleLightGemAbility(player);
-            case WATER -> AbilityManager.handleWaterGemAbility(player);
-            default -> {
-                LogUtil.severe("Unknown gem type: " + gemType);
-                player.sendMessage("Unknown gem type!");
-            }
+        // Run the compiled ability of the identified gem type.
+        if (!AbilityRegistry.get().activate(player, gemType)) {
+            LogUtil.severe("No ability configured for gem type: " + gemType);
+            player.sendMessage("Unknown gem type!");
         }
     }
+
+    /**
+     * Cancels the interaction, so neither the gem nor the clicked block is used.
+     *
+     * @param event The {@link PlayerInteractEvent} to cancel.
+     */
+    private static void deny(PlayerInteractEvent event) {
+        event.setUseItemInHand(Result.DENY);
+        event.setUseInteractedBlock(Result.DENY);
+        event.setCancelled(true);
+    }
 }
\ No newline at end of file
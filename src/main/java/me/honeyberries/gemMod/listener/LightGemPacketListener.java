@@ -0,0 +1,80 @@
+package me.honeyberries.gemMod.listener;
+
+import com.github.retrooper.packetevents.event.PacketListenerAbstract;
+import com.github.retrooper.packetevents.event.PacketListenerPriority;
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
+import me.honeyberries.gemMod.manager.LightGemGlowManager;
+
+import java.util.UUID;
+
+/**
+ * Implements the passive glowing effect of the Light Gem.
+ * <p>
+ * Players holding a Light Gem see other players through walls. Instead of periodically overwriting
+ * the client's view, this listener adds the glowing bit to every outgoing entity metadata packet
+ * about another player, so vanilla flag updates can never clear the glow. Packets without a flags entry are
+ * left alone; spawn metadata often has none, so the {@link LightGemGlowManager} sends the flags once when a
+ * player comes into a holder's tracking range. It runs on the netty threads and only reads the concurrent sets of the {@link LightGemGlowManager}.
+ *
+ * @author HoneyBerries
+ * @version 1.0
+ */
+public class LightGemPacketListener extends PacketListenerAbstract {
+
+    /**
+     * A reference to the glow manager, which knows the Light Gem holders.
+     */
+    private final LightGemGlowManager glowManager = LightGemGlowManager.getInstance();
+
+    /**
+     * Creates the listener at normal priority.
+     */
+    public LightGemPacketListener() {
+        super(PacketListenerPriority.NORMAL);
+    }
+
+    /**
+     * Adds the glowing bit to the entity flags of other players for Light Gem holders.
+     * Packets to other viewers are passed through without being decoded.
+     *
+     * @param event The {@link PacketSendEvent} for the outgoing packet.
+     */
+    @Override
+    public void onPacketSend(PacketSendEvent event) {
+        if (event.getPacketType() != PacketType.Play.Server.ENTITY_METADATA) {
+            return;
+        }
+        UUID viewer = event.getUser().getUUID();
+        if (viewer == null || !glowManager.isViewer(viewer)) {
+            return;
+        }
+
+        WrapperPlayServerEntityMetadata packet = new WrapperPlayServerEntityMetadata(event);
+        if (!glowManager.shouldGlow(viewer, packet.getEntityId())) {
+            return;
+        }
+        for (EntityData<?> data : packet.getEntityMetadata()) {
+            if (data.getIndex() == 0 && data.getValue() instanceof Byte flags) {
+                if ((flags & LightGemGlowManager.GLOWING_FLAG) == 0) {
+                    setFlags(data, (byte) (flags | LightGemGlowManager.GLOWING_FLAG));
+                    event.markForReEncode(true);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Replaces the value of an entity flags entry.
+     *
+     * @param data  The metadata entry at index 0, holding a byte.
+     * @param flags The new entity flags.
+     */
+    @SuppressWarnings("unchecked")
+    private static void setFlags(EntityData<?> data, byte flags) {
+        ((EntityData<Byte>) data).setValue(flags);
+    }
+}
@@ -0,0 +1,38 @@
+package me.honeyberries.gemMod.listener;
+
+import me.honeyberries.gemMod.manager.PassivePerkManager;
+import me.honeyberries.gemMod.util.LogUtil;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageEvent;
+
+/**
+ * Applies the damage immunities granted by carried gems.
+ *
+ * This listener cancels damage from causes a player is immune to through their gems, such as
+ * falling and flying into walls with an Air Gem, or fire and lava with a Fire Gem.
+ *
+ * @author HoneyBerries
+ * @version 1.0
+ */
+public class PassiveDamageListener implements Listener {
+
+    /**
+     * A reference to the perk manager that owns the immunity table.
+     */
+    private final PassivePerkManager perkManager = PassivePerkManager.getInstance();
+
+    /**
+     * Cancels damage to players who are immune to its cause through a carried gem.
+     *
+     * @param event The {@link EntityDamageEvent} triggered when an entity takes damage.
+     */
+    @EventHandler
+    public void onPlayerDamage(EntityDamageEvent event) {
+        if (event.getEntity() instanceof Player player && perkManager.isImmune(player, event.getCause())) {
+            event.setCancelled(true);
+            LogUtil.verbose(event.getCause().name() + " damage cancelled by gem passive for player: " + player.getName());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package me.honeyberries.gemMod.listener;
+
+import me.honeyberries.gemMod.GemMod;
+import me.honeyberries.gemMod.ability.AbilityRateLimiter;
+import me.honeyberries.gemMod.configuration.TimerStore;
+import me.honeyberries.gemMod.manager.EquipmentMaskManager;
+import me.honeyberries.gemMod.manager.GemHoldingsManager;
+import me.honeyberries.gemMod.manager.LightGemGlowManager;
+import me.honeyberries.gemMod.manager.PassivePerkManager;
+import me.honeyberries.gemMod.manager.TargetingManager;
+import me.honeyberries.gemMod.packet.EncodedPacketCache;
+import me.honeyberries.gemMod.packet.PacketBatcher;
+import me.honeyberries.gemMod.task.PassiveEffectTask;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Sets up and tears down per-player state when players join and leave the server.
+ *
+ * @author HoneyBerries
+ * @version 1.0
+ */
+public class PlayerSessionListener implements Listener {
+
+    /**
+     * A reference to the holdings manager for indexing carried gems.
+     */
+    private final GemHoldingsManager holdingsManager = GemHoldingsManager.getInstance();
+
+    /**
+     * A reference to the perk manager, which applies passives on holdings edges.
+     */
+    private final PassivePerkManager perkManager = PassivePerkManager.getInstance();
+
+    /**
+     * A reference to the glow manager, which needs to know every player entity.
+     */
+    private final LightGemGlowManager glowManager = LightGemGlowManager.getInstance();
+
+    /**
+     * A reference to the mask manager, whose entity IDs must not outlive the player's session.
+     */
+    private final EquipmentMaskManager maskManager = EquipmentMaskManager.getInstance();
+
+    /**
+     * A reference to the timer store, which keeps cooldowns and timed effects while players are offline.
+     */
+    private final TimerStore timerStore = TimerStore.getInstance();
+
+    /**
+     * Builds the player's gem holdings index and attaches their passive task when they join.
+     * Stale perk modifiers are cleared first, so indexing applies exactly the perks of the gems carried.
+     * Their saved cooldowns and timed effects are read in the background and restored on their thread.
+     *
+     * @param event The {@link PlayerJoinEvent}.
+     */
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        perkManager.removeAllPerks(player);
+        glowManager.addPlayer(player);
+        holdingsManager.track(player);
+        PassiveEffectTask.attach(player);
+        timerStore.load(player.getUniqueId(), record -> {
+            if (record != null) {
+                player.getScheduler().run(GemMod.getInstance(), task -> timerStore.apply(player, record), null);
+            }
+        });
+    }
+
+    /**
+     * Drops the player's per-session state when they leave.
+     * Untracking removes their perk modifiers before their data is saved, and their running cooldowns and
+     * timed effects are evicted from memory and saved in the background.
+     *
+     * @param event The {@link PlayerQuitEvent}.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        Player player = event.getPlayer();
+        glowManager.removePlayer(player);
+        maskManager.unmask(player);
+        TargetingManager.getInstance().forget(player.getUniqueId());
+        AbilityRateLimiter.getInstance().forget(player.getUniqueId());
+        holdingsManager.untrack(player);
+        PassiveEffectTask.detach(player);
+        timerStore.save(player.getUniqueId(), timerStore.capture(player.getUniqueId(), true));
+        if (GemMod.getInstance().isFeatureEnabled("packetEvents")) {
+            PacketBatcher.getInstance().discard(player.getUniqueId());
+            EncodedPacketCache.getInstance().invalidate(player.getEntityId());
+        }
+    }
+}
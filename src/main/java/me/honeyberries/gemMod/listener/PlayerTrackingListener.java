@@ -0,0 +1,48 @@
+package me.honeyberries.gemMod.listener;
+
+import io.papermc.paper.event.player.PlayerTrackEntityEvent;
+import io.papermc.paper.event.player.PlayerUntrackEntityEvent;
+import me.honeyberries.gemMod.manager.LightGemGlowManager;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+/**
+ * Keeps track of which players each client can see, so Light Gem glow updates are only sent
+ * for players that are actually in the viewer's tracking range.
+ *
+ * @author HoneyBerries
+ * @version 1.0
+ */
+public class PlayerTrackingListener implements Listener {
+
+    /**
+     * A reference to the glow manager, which owns the tracked player sets.
+     */
+    private final LightGemGlowManager glowManager = LightGemGlowManager.getInstance();
+
+    /**
+     * Records a player coming into another player's tracking range.
+     *
+     * @param event The {@link PlayerTrackEntityEvent} triggered when tracking starts.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTrack(PlayerTrackEntityEvent event) {
+        if (event.getEntity() instanceof Player target) {
+            glowManager.trackPlayer(event.getPlayer(), target);
+        }
+    }
+
+    /**
+     * Records a player leaving another player's tracking range.
+     *
+     * @param event The {@link PlayerUntrackEntityEvent} triggered when tracking stops.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onUntrack(PlayerUntrackEntityEvent event) {
+        if (event.getEntity() instanceof Player target) {
+            glowManager.untrackPlayer(event.getPlayer(), target);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package me.honeyberries.gemMod.manager;
+
+import me.honeyberries.gemMod.GemMod;
+import me.honeyberries.gemMod.configuration.GemModData;
+import org.bukkit.Server;
+import org.bukkit.entity.Entity;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * <b>AdaptiveIntervalManager</b> stretches the period of background gem tasks while the server is under load.
+ * </p>
+ * Each task keeps an {@link AdaptiveInterval} and reschedules itself with the delay it returns, so a task only
+ * wakes up when it actually runs. The price is one new delayed scheduler task per run. Whenever the task runs, the interval is recomputed from the tick time (MSPT)
+ * of the region the task's entity is in: it moves linearly
+ * from the configured minimum at the relaxed MSPT up to the maximum at the overloaded MSPT.
+ * Intervals grow at once when load rises, but shrink by half the distance per run when headroom returns,
+ * so a single quick tick does not make every task run at full rate again.
+ * </p>
+ */
+public class AdaptiveIntervalManager {
+
+    /** <b>Singleton instance</b> */
+    private static final AdaptiveIntervalManager INSTANCE = new AdaptiveIntervalManager();
+
+    /** <b>Whether the server runs Folia, which only exposes per-region TPS</b> */
+    private static final boolean FOLIA = isFolia();
+
+    /** <b>Reference to the main plugin instance</b> */
+    private final GemMod plugin = GemMod.getInstance();
+
+    /**
+     * <b>The interval each task kind last settled on, for reporting.</b>
+     */
+    private final Map<TaskKind, Integer> lastIntervals = new EnumMap<>(TaskKind.class);
+
+    /**
+     * <b>The MSPT each task kind last sampled, for reporting.</b>
+     */
+    private final Map<TaskKind, Double> lastMspt = new EnumMap<>(TaskKind.class);
+
+    /**
+     * The background tasks whose period adapts to load, with their default bounds in ticks.
+     */
+    public enum TaskKind {
+        PASSIVES("passives", 10, 40),
+        ACTION_BAR("action-bar", 1, 10);
+
+        private final String configKey;
+        private final int defaultMin;
+        private final int defaultMax;
+
+        TaskKind(String configKey, int defaultMin, int defaultMax) {
+            this.configKey = configKey;
+            this.defaultMin = defaultMin;
+            this.defaultMax = defaultMax;
+        }
+
+        /**
+         * Returns the key of this task kind under {@code adaptive-intervals} in data.yml.
+         *
+         * @return the config key.
+         */
+        public String getConfigKey() {
+            return configKey;
+        }
+
+        /**
+         * Returns the shortest period used when the server has headroom, unless configured otherwise.
+         *
+         * @return the default minimum interval in ticks.
+         */
+        public int getDefaultMin() {
+            return defaultMin;
+        }
+
+        /**
+         * Returns the longest period used when the server is overloaded, unless configured otherwise.
+         *
+         * @return the default maximum interval in ticks.
+         */
+        public int getDefaultMax() {
+            return defaultMax;
+        }
+    }
+
+    /**
+     * Returns the singleton instance of the AdaptiveIntervalManager.
+     * </p>
+     *
+     * @return the active AdaptiveIntervalManager instance.
+     */
+    public static synchronized AdaptiveIntervalManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Creates the interval state for one task. The first run happens after the minimum interval.
+     * </p>
+     *
+     * @param kind the kind of task
+     * @return a new {@link AdaptiveInterval}, owned by the calling task.
+     */
+    public AdaptiveInterval newInterval(TaskKind kind) {
+        return new AdaptiveInterval(this, kind, GemModData.getMinInterval(kind));
+    }
+
+    /**
+     * Computes the next interval of a task from the load of the region it runs in.
+     * </p>
+     *
+     * @param kind the kind of task
+     * @param current the interval the task used so far
+     * @param entity the entity whose region the task runs in, or null for global tasks
+     * @return the next interval in ticks, within the configured bounds.
+     */
+    int nextInterval(TaskKind kind, int current, @Nullable Entity entity) {
+        int min = GemModData.getMinInterval(kind);
+        int max = GemModData.getMaxInterval(kind);
+        double mspt = sampleMspt(entity);
+
+        double relaxed = GemModData.getRelaxedMspt();
+        double overloaded = GemModData.getOverloadedMspt();
+        double pressure = Math.clamp((mspt - relaxed) / (overloaded - relaxed), 0.0, 1.0);
+        int target = min + (int) Math.round(pressure * (max - min));
+
+        // Stretch at once, tighten by half the distance per run
+        int next = target >= current ? target : current - Math.max(1, (current - target + 1) / 2);
+        next = Math.clamp(next, min, max);
+
+        synchronized (lastIntervals) {
+            lastIntervals.put(kind, next);
+            lastMspt.put(kind, mspt);
+        }
+        return next;
+    }
+
+    /**
+     * Returns the interval a task kind last settled on.
+     * </p>
+     *
+     * @param kind the kind of task
+     * @return the interval in ticks, or the minimum if no task of that kind has run yet.
+     */
+    public int getLastInterval(TaskKind kind) {
+        synchronized (lastIntervals) {
+            Integer interval = lastIntervals.get(kind);
+            return interval != null ? interval : GemModData.getMinInterval(kind);
+        }
+    }
+
+    /**
+     * Returns the MSPT a task kind last sampled.
+     * </p>
+     *
+     * @param kind the kind of task
+     * @return the MSPT, or 0 if no task of that kind has run yet.
+     */
+    public double getLastMspt(TaskKind kind) {
+        synchronized (lastIntervals) {
+            Double mspt = lastMspt.get(kind);
+            return mspt != null ? mspt : 0.0;
+        }
+    }
+
+    /**
+     * Samples the tick time of the region the entity is in.
+     * On Folia only region TPS is exposed, so load only shows up once the region falls behind 20 TPS.
+     * </p>
+     *
+     * @param entity the entity whose region is sampled, or null for the global region
+     * @return the tick time in milliseconds.
+     */
+    private double sampleMspt(@Nullable Entity entity) {
+        Server server = plugin.getServer();
+        try {
+            if (!FOLIA) {
+                return server.getAverageTickTime();
+            }
+            double[] tps = entity != null ? server.getRegionTPS(entity.getLocation()) : server.getTPS();
+            if (tps == null || tps.length == 0 || tps[0] >= 19.95) {
+                return 0.0;
+            }
+            return 1000.0 / Math.max(tps[0], 0.1);
+        } catch (UnsupportedOperationException e) {
+            return 0.0;
+        }
+    }
+
+    /**
+     * Checks whether the server runs Folia's regionised scheduler.
+     * </p>
+     *
+     * @return true on Folia; false otherwise.
+     */
+    private static boolean isFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * <b>AdaptiveInterval</b> is the delay of one task that reschedules itself after every run.
+     * </p>
+     * Only the owning task may use it, so it needs no synchronisation.
+     * </p>
+     */
+    public static final class AdaptiveInterval {
+
+        private final AdaptiveIntervalManager manager;
+        private final TaskKind kind;
+        private int interval;
+
+        private AdaptiveInterval(AdaptiveIntervalManager manager, TaskKind kind, int interval) {
+            this.manager = manager;
+            this.kind = kind;
+            this.interval = interval;
+        }
+
+        /**
+         * Computes the delay until the task's next run from the current load. Called once per run.
+         * </p>
+         *
+         * @param entity the entity whose region the task runs in, or null for global tasks
+         * @return the delay in ticks.
+         */
+        public int next(@Nullable Entity entity) {
+            interval = manager.nextInterval(kind, interval, entity);
+            return interval;
+        }
+
+        /**
+         * Returns the interval currently used by the task, which is the delay of its first run until it has run once.
+         * </p>
+         *
+         * @return the interval in ticks.
+         */
+        public int getInterval() {
+            return interval;
+        }
+    }
+}
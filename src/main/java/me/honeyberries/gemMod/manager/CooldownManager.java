@@ -2,22 +2,41 @@ package me.honeyberries.gemMod.manager;
 
 import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
 import me.honeyberries.gemMod.GemMod;
+import me.honeyberries.gemMod.configuration.GemModData;
+import me.honeyberries.gemMod.manager.AdaptiveIntervalManager.AdaptiveInterval;
+import me.honeyberries.gemMod.manager.AdaptiveIntervalManager.TaskKind;
+import me.honeyberries.gemMod.util.TimingWheel;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Bukkit;
+import org.bukkit.Sound;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
 
 import static me.honeyberries.gemMod.manager.GemManager.identifyGemType;
 import me.honeyberries.gemMod.manager.GemManager.GemType;
 
 /**
- * <b>CooldownManager</b> manages all gem cooldowns and updates the player's action bar with cooldown information.
+ * <b>CooldownManager</b> manages all gem cooldowns, has the client draw them on the gem items and can also show them
+ * in the action bar.
  * Handles thread-safe operations and scheduled updates for cooldowns.
  * </p>
+ * Each player has one {@link AtomicLongArray} of expiry times indexed by {@link GemType#ordinal()}, so a lookup is
+ * a map read and a volatile array read with no boxing, safe from any region thread. Expiries are measured on
+ * {@link System#nanoTime()}, which does not jump when the wall clock is adjusted. A {@link TimingWheel} driven by
+ * the server tick ends each cooldown when it runs out, so the table only holds players with live cooldowns.
+ * </p>
+ * Setting a cooldown reuses the player's expiry handle for that gem and the gem's registry prototype, so once a
+ * player has used a gem in their session it allocates nothing here. Paper still copies the item for the client
+ * cooldown and wraps tasks it schedules.
+ * </p>
  */
 public class CooldownManager {
 
@@ -28,14 +47,50 @@ public class CooldownManager {
     private final GemMod plugin = GemMod.getInstance();
 
     /**
-     * <b>Mapping of player UUIDs to their gem cooldown expiry times.</b>
+     * <b>Permission that lets a player use abilities while on cooldown.</b>
+     */
+    public static final String BYPASS_PERMISSION = "gemmod.cooldown.bypass";
+
+    /**
+     * <b>Number of gem types, the length of each player's cooldown table.</b>
+     */
+    private static final int GEM_TYPE_COUNT = GemType.values().length;
+
+    /**
+     * <b>Origin of the monotonic clock, so stored expiries are positive and 0 can mean no cooldown.</b>
+     */
+    private static final long CLOCK_ORIGIN = System.nanoTime() - 1;
+
+    /**
+     * <b>Mapping of player UUIDs to their gem cooldown expiry times in clock nanoseconds, 0 when not on cooldown.</b>
      */
-    private final Map<UUID, Map<GemType, Long>> cooldowns = new ConcurrentHashMap<>();
+    private final Map<UUID, AtomicLongArray> cooldowns = new ConcurrentHashMap<>();
 
     /**
-     * <b>Stores scheduled tasks for updating action bars.</b>
+     * <b>Ends cooldowns on the tick they run out, so expired entries never linger.</b>
      */
-    private final Map<UUID, ScheduledTask> actionBarTasks = new ConcurrentHashMap<>();
+    private final TimingWheel expiryWheel = new TimingWheel();
+
+    /**
+     * <b>Reusable expiry actions per online player, indexed by {@link GemType#ordinal()}, kept until they leave.</b>
+     */
+    private final Map<UUID, Expiry[]> expiries = new ConcurrentHashMap<>();
+
+    /**
+     * <b>Players whose cooldowns are shown in the action bar, kept up to date by the HUD ticker.</b>
+     */
+    private final Map<UUID, HudEntry> hudPlayers = new ConcurrentHashMap<>();
+
+    /**
+     * <b>Pre-built action bar texts for up to five minutes of cooldown, indexed by seconds left.</b>
+     */
+    private static final Component[] COOLDOWN_TEXT = new Component[301];
+
+    static {
+        for (int seconds = 0; seconds < COOLDOWN_TEXT.length; seconds++) {
+            COOLDOWN_TEXT[seconds] = Component.text("Cooldown: " + seconds + "s", NamedTextColor.GOLD);
+        }
+    }
 
     /**
      * Returns the singleton instance of the CooldownManager.
@@ -49,6 +104,7 @@ public class CooldownManager {
 
     /**
      * Sets a cooldown for a player and gem type while optionally showing the cooldown timer.
+     * The client draws the cooldown on every gem of that type through the gem's cooldown group.
      * </p>
      *
      * @param player the player to set the cooldown for
@@ -57,10 +113,20 @@ public class CooldownManager {
      * @param showActionBar whether to display the cooldown in the player's action bar
      */
     public void setCooldown(Player player, GemType gemType, long durationMillis, boolean showActionBar) {
+        long expiry = now() + TimeUnit.MILLISECONDS.toNanos(durationMillis);
         UUID uuid = player.getUniqueId();
-        Map<GemType, Long> playerCooldowns = cooldowns.computeIfAbsent(uuid, k -> new ConcurrentHashMap<>());
-        playerCooldowns.put(gemType, System.currentTimeMillis() + durationMillis);
-        if (showActionBar) {
+        AtomicLongArray table;
+        do {
+            table = cooldowns.get(uuid);
+            if (table == null) {
+                table = cooldowns.computeIfAbsent(uuid, CooldownManager::newTable);
+            }
+            table.set(gemType.ordinal(), expiry);
+            // A cleanup that found the table empty may have dropped it just before the write
+        } while (cooldowns.get(uuid) != table);
+        scheduleExpiry(expiry(uuid, gemType), durationMillis);
+        sendItemCooldown(player, gemType, durationMillis);
+        if (showActionBar && GemModData.isActionBarCooldownsEnabled()) {
             // <i>Show cooldown in action bar if requested</i>
             showCooldownActionBar(player);
         }
@@ -68,7 +134,7 @@ public class CooldownManager {
 
     /**
      * Removes the cooldown for the given player and gem type.
-     * Also cancels any active action bar display for that gem.
+     * Also clears the action bar if it shows that gem.
      * </p>
      *
      * @param player the player to update
@@ -76,18 +142,16 @@ public class CooldownManager {
      */
     public void removeCooldown(Player player, GemType gemType) {
         UUID uuid = player.getUniqueId();
-        Map<GemType, Long> playerCooldowns = cooldowns.get(uuid);
-        if (playerCooldowns != null) {
-            playerCooldowns.remove(gemType);
-            if (playerCooldowns.isEmpty()) {
-                cooldowns.remove(uuid);
-            }
+        AtomicLongArray table = cooldowns.get(uuid);
+        if (table != null) {
+            table.set(gemType.ordinal(), 0);
+            pruneExpired(uuid);
         }
+        sendItemCooldown(player, gemType, 0);
         // <i>Clear action bar if the cooldown gem is in use</i>
-        ItemStack heldItem = player.getInventory().getItemInMainHand();
-        if (gemType == identifyGemType(heldItem)) {
-            cancelActionBarTask(player);
-            player.sendActionBar(Component.empty());
+        HudEntry entry = hudPlayers.get(uuid);
+        if (entry != null && entry.player == player) {
+            refresh(entry);
         }
     }
 
@@ -112,14 +176,129 @@ public class CooldownManager {
      * @return remaining time in milliseconds, or 0 if expired.
      */
     public long getRemainingCooldown(Player player, GemType gemType) {
-        UUID uuid = player.getUniqueId();
-        Map<GemType, Long> playerCooldowns = cooldowns.get(uuid);
-        if (playerCooldowns == null) {
+        AtomicLongArray table = cooldowns.get(player.getUniqueId());
+        if (table == null) {
             return 0;
         }
-        Long expiry = playerCooldowns.get(gemType);
-        long now = System.currentTimeMillis();
-        return (expiry != null && now < expiry) ? expiry - now : 0;
+        long expiry = table.get(gemType.ordinal());
+        if (expiry == 0) {
+            return 0;
+        }
+        long remaining = expiry - now();
+        return remaining > 0 ? TimeUnit.NANOSECONDS.toMillis(remaining) : 0;
+    }
+
+    /**
+     * Returns the time left on each of a player's cooldowns, indexed by {@link GemType#ordinal()}.
+     * </p>
+     *
+     * @param uuid the player's UUID
+     * @return the remaining time in milliseconds per gem type, 0 for gems not on cooldown.
+     */
+    public long[] export(UUID uuid) {
+        long[] remaining = new long[GEM_TYPE_COUNT];
+        AtomicLongArray table = cooldowns.get(uuid);
+        if (table != null) {
+            long now = now();
+            for (int i = 0; i < GEM_TYPE_COUNT; i++) {
+                long expiry = table.get(i);
+                remaining[i] = expiry != 0 && expiry - now > 0 ? TimeUnit.NANOSECONDS.toMillis(expiry - now) : 0;
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Returns the time left on each of a player's cooldowns and drops them from memory, e.g. when the player
+     * leaves. Pending expiries on the wheel then find nothing to end.
+     * </p>
+     *
+     * @param uuid the player's UUID
+     * @return the remaining time in milliseconds per gem type, 0 for gems not on cooldown.
+     */
+    public long[] evict(UUID uuid) {
+        long[] remaining = export(uuid);
+        cooldowns.remove(uuid);
+        expiries.remove(uuid);
+        hudPlayers.remove(uuid);
+        return remaining;
+    }
+
+    /**
+     * Restores saved cooldowns, keeping any longer cooldown the player started in the meantime.
+     * Must be called on the player's thread.
+     * </p>
+     *
+     * @param player the player
+     * @param remainingMillis the remaining time in milliseconds per gem type, 0 for gems not on cooldown
+     */
+    public void restore(Player player, long[] remainingMillis) {
+        for (GemType gemType : GemType.values()) {
+            if (gemType.ordinal() >= remainingMillis.length) {
+                break;
+            }
+            long remaining = remainingMillis[gemType.ordinal()];
+            if (remaining > getRemainingCooldown(player, gemType)) {
+                setCooldown(player, gemType, remaining, true);
+            }
+        }
+    }
+
+    /**
+     * Sets the cooldown the client draws on the player's gems of a type.
+     * Skipped for players who bypass cooldowns, since the client refuses to use an item on cooldown.
+     * </p>
+     *
+     * @param player the player to update
+     * @param gemType the gem type whose cooldown group is set
+     * @param durationMillis duration in milliseconds, or 0 to clear the cooldown
+     */
+    private void sendItemCooldown(Player player, GemType gemType, long durationMillis) {
+        if (player.hasPermission(BYPASS_PERMISSION)) {
+            return;
+        }
+        int ticks = (int) Math.min(Integer.MAX_VALUE, (durationMillis + 49) / 50);
+        player.setCooldown(GemRegistry.get().getPrototype(gemType), ticks);
+    }
+
+    /**
+     * Creates an empty cooldown table.
+     * </p>
+     *
+     * @param uuid the player's UUID
+     * @return a table with no gem on cooldown.
+     */
+    private static AtomicLongArray newTable(UUID uuid) {
+        return new AtomicLongArray(GEM_TYPE_COUNT);
+    }
+
+    /**
+     * Drops the player's cooldown table once no gem is on cooldown.
+     * </p>
+     *
+     * @param uuid the player's UUID
+     */
+    private void pruneExpired(UUID uuid) {
+        cooldowns.computeIfPresent(uuid, (k, table) -> {
+            long now = now();
+            for (int i = 0; i < GEM_TYPE_COUNT; i++) {
+                long expiry = table.get(i);
+                if (expiry != 0 && expiry - now > 0) {
+                    return table;
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Reads the monotonic clock cooldowns are measured on.
+     * </p>
+     *
+     * @return nanoseconds since the clock origin, always positive.
+     */
+    private static long now() {
+        return System.nanoTime() - CLOCK_ORIGIN;
     }
 
     /**
@@ -130,70 +309,293 @@ public class CooldownManager {
      * @param newItem the new item in the hotbar slot
      */
     public void handleHotbarSwitch(Player player, ItemStack newItem) {
+        if (!GemModData.isActionBarCooldownsEnabled()) {
+            return;
+        }
         GemType gemType = identifyGemType(newItem);
-        if (gemType != null && isOnCooldown(player, gemType)) {
-            // <i>Show or clear cooldown action bar based on held item</i>
-            showCooldownActionBar(player);
-        } else {
-            cancelActionBarTask(player);
-            player.sendActionBar(Component.empty());
+        HudEntry entry = hudPlayers.get(player.getUniqueId());
+        if (entry == null || entry.player != player) {
+            if (gemType == null || !isOnCooldown(player, gemType)) {
+                return;
+            }
+            entry = hudEntry(player);
         }
+        // <i>Show or clear cooldown action bar based on the item about to be held</i>
+        show(entry, gemType);
     }
 
     /**
-     * Cancels the scheduled action bar update task for the player.
+     * Displays the cooldown timer in the player's action bar and keeps it updated by the HUD ticker.
+     * Must be called on the player's thread.
      * </p>
      *
-     * @param player the player whose task should be canceled.
+     * @param player the player to display the cooldown for.
      */
-    private void cancelActionBarTask(Player player) {
-        UUID uuid = player.getUniqueId();
-        ScheduledTask oldTask = actionBarTasks.remove(uuid);
-        if (oldTask != null) {
-            oldTask.cancel();
+    public void showCooldownActionBar(Player player) {
+        refresh(hudEntry(player));
+    }
+
+    /**
+     * Starts the shared ticker that keeps every cooldown action bar up to date.
+     * </p>
+     * The ticker runs on the global region and only reads the cooldown tables. When the displayed seconds of one of
+     * a player's cooldowns change, it schedules a single refresh on that player's thread, which reads the held gem
+     * and sends the action bar if the shown value changed. Players drop out once none of their gems is on cooldown.
+     * It runs less often while the server is under load.
+     * </p>
+     */
+    public void startHudTicker() {
+        AdaptiveInterval interval = AdaptiveIntervalManager.getInstance().newInterval(TaskKind.ACTION_BAR);
+        scheduleHudTick(interval, interval.getInterval());
+    }
+
+    /**
+     * Schedules the next run of the HUD ticker, which reschedules itself with its adaptive interval.
+     * </p>
+     *
+     * @param interval the ticker's adaptive interval
+     * @param delay the delay in ticks
+     */
+    private void scheduleHudTick(AdaptiveInterval interval, long delay) {
+        plugin.getServer().getGlobalRegionScheduler().runDelayed(plugin, scheduledTask -> {
+            for (HudEntry entry : hudPlayers.values()) {
+                UUID uuid = entry.player.getUniqueId();
+                if (!entry.player.isOnline()) {
+                    hudPlayers.remove(uuid, entry);
+                    continue;
+                }
+                long signature = hudSignature(uuid);
+                if (signature == entry.signature) {
+                    continue;
+                }
+                entry.signature = signature;
+                if (signature == 0) {
+                    // The expiry wheel clears the bar and drops the entry
+                    continue;
+                }
+                entry.player.getScheduler().run(plugin, task -> refresh(entry), null);
+            }
+            scheduleHudTick(interval, interval.next(null));
+        }, delay);
+    }
+
+    /**
+     * Starts driving the expiry wheel, which ends cooldowns on the tick they run out.
+     * </p>
+     */
+    public void startExpiryWheel() {
+        plugin.getServer().getGlobalRegionScheduler().runAtFixedRate(plugin, scheduledTask -> expiryWheel.tick(), 1, 1);
+    }
+
+    /**
+     * Returns the player's reusable expiry action for a gem type, creating the player's actions on first use.
+     * </p>
+     *
+     * @param uuid the player's UUID
+     * @param gemType the gem type on cooldown
+     * @return the expiry action.
+     */
+    private Expiry expiry(UUID uuid, GemType gemType) {
+        Expiry[] actions = expiries.get(uuid);
+        if (actions == null) {
+            actions = expiries.computeIfAbsent(uuid, this::newExpiries);
         }
+        return actions[gemType.ordinal()];
+    }
+
+    private Expiry[] newExpiries(UUID uuid) {
+        Expiry[] actions = new Expiry[GEM_TYPE_COUNT];
+        for (GemType gemType : GemType.values()) {
+            actions[gemType.ordinal()] = new Expiry(uuid, gemType);
+        }
+        return actions;
     }
 
     /**
-     * Displays and updates the cooldown timer in the player's action bar.
-     * The task runs periodically to update the remaining seconds.
+     * Schedules the end of a cooldown on the expiry wheel.
      * </p>
      *
-     * @param player the player to display the cooldown for.
+     * @param expiry the expiry action of the player and gem type
+     * @param remainingMillis the time left in milliseconds
      */
-    public void showCooldownActionBar(Player player) {
-        UUID uuid = player.getUniqueId();
-        cancelActionBarTask(player);
-        ScheduledTask task = player.getScheduler().runAtFixedRate(
-                plugin,
-                scheduledTask -> {
-                    ItemStack currentHeldItem = player.getInventory().getItemInMainHand();
-                    GemType gemType = identifyGemType(currentHeldItem);
-                    if (gemType == null) {
-                        player.sendActionBar(Component.empty());
-                        return;
-                    }
-                    long timeLeft = getRemainingCooldown(player, gemType);
-                    if (timeLeft <= 0) {
-                        player.sendActionBar(Component.empty());
-                        Map<GemType, Long> playerCooldowns = cooldowns.get(uuid);
-                        if (playerCooldowns != null) {
-                            playerCooldowns.remove(gemType);
-                            if (playerCooldowns.isEmpty()) {
-                                cooldowns.remove(uuid);
-                            }
-                        }
-                        scheduledTask.cancel();
-                        actionBarTasks.remove(uuid);
-                        return;
-                    }
-                    long seconds = timeLeft / 1000;
-                    // <i>Update action bar with cooldown timer, cancel when done</i>
-                    player.sendActionBar(Component.text(String.format("Cooldown: %ds", seconds), NamedTextColor.GOLD));
-                },
-                null,
-                1, 1
-        );
-        actionBarTasks.put(uuid, task);
+    private void scheduleExpiry(Expiry expiry, long remainingMillis) {
+        long ticks = (remainingMillis + 49) / 50;
+        if (!expiryWheel.schedule(expiry.timeout, ticks)) {
+            // Still waiting for an earlier cooldown that may end later, so also run once at the new deadline
+            expiryWheel.schedule(ticks, expiry);
+        }
+    }
+
+    /**
+     * Returns the player's HUD entry, replacing one left over from an earlier session.
+     * </p>
+     *
+     * @param player the player
+     * @return the player's HUD entry.
+     */
+    private HudEntry hudEntry(Player player) {
+        HudEntry current = hudPlayers.get(player.getUniqueId());
+        if (current != null && current.player == player) {
+            return current;
+        }
+        return hudPlayers.compute(player.getUniqueId(), (uuid, entry) ->
+                entry != null && entry.player == player ? entry : new HudEntry(player));
+    }
+
+    /**
+     * Sums the displayed seconds, plus one, of every gem the player has on cooldown.
+     * The sum changes whenever any displayed value changes and is 0 once no gem is on cooldown.
+     * </p>
+     *
+     * @param uuid the player's UUID
+     * @return the HUD signature.
+     */
+    private long hudSignature(UUID uuid) {
+        AtomicLongArray table = cooldowns.get(uuid);
+        if (table == null) {
+            return 0;
+        }
+        long now = now();
+        long signature = 0;
+        for (int i = 0; i < GEM_TYPE_COUNT; i++) {
+            long expiry = table.get(i);
+            long remaining = expiry - now;
+            if (expiry != 0 && remaining > 0) {
+                signature += TimeUnit.NANOSECONDS.toSeconds(remaining) + 1;
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Shows the cooldown of the gem the player is holding. Must be called on the player's thread.
+     * </p>
+     *
+     * @param entry the player's HUD entry
+     */
+    private void refresh(HudEntry entry) {
+        show(entry, identifyGemType(entry.player.getInventory().getItemInMainHand()));
+    }
+
+    /**
+     * Sends the cooldown of a gem to the player's action bar, unless it is already shown.
+     * Must be called on the player's thread.
+     * </p>
+     *
+     * @param entry the player's HUD entry
+     * @param gemType the gem in the player's main hand, or null
+     */
+    private void show(HudEntry entry, GemType gemType) {
+        long timeLeft = gemType != null ? getRemainingCooldown(entry.player, gemType) : 0;
+        int seconds = timeLeft > 0 ? (int) Math.min(timeLeft / 1000, Integer.MAX_VALUE) : HudEntry.NOTHING_SHOWN;
+        if (seconds == entry.shownSeconds) {
+            return;
+        }
+        entry.shownSeconds = seconds;
+        entry.player.sendActionBar(seconds == HudEntry.NOTHING_SHOWN ? Component.empty() : cooldownText(seconds));
+    }
+
+    /**
+     * Returns the action bar text for a number of seconds, pre-built for common cooldown lengths.
+     * </p>
+     *
+     * @param seconds the seconds left
+     * @return the action bar component.
+     */
+    private static Component cooldownText(int seconds) {
+        return seconds < COOLDOWN_TEXT.length ? COOLDOWN_TEXT[seconds]
+                : Component.text("Cooldown: " + seconds + "s", NamedTextColor.GOLD);
+    }
+
+    /**
+     * Ends one player's cooldown of one gem type. Runs on the expiry wheel's thread, and chimes on the player's.
+     * </p>
+     * The action reads the expiry from the table when it runs, so the same instance serves every cooldown of the
+     * gem: a cooldown that was set again is simply waited for, and one that was removed is ignored.
+     */
+    private final class Expiry implements Runnable, Consumer<ScheduledTask> {
+
+        private final UUID uuid;
+        private final GemType gemType;
+        private final TimingWheel.Timeout timeout;
+
+        private Expiry(UUID uuid, GemType gemType) {
+            this.uuid = uuid;
+            this.gemType = gemType;
+            this.timeout = expiryWheel.newTimeout(this);
+        }
+
+        /**
+         * Clears the cooldown's slot once it ran out, drops the player's table once nothing is on cooldown, and
+         * has an online player told the ability is ready.
+         */
+        @Override
+        public void run() {
+            AtomicLongArray table = cooldowns.get(uuid);
+            if (table == null) {
+                return;
+            }
+            long expiry = table.get(gemType.ordinal());
+            if (expiry == 0) {
+                return;
+            }
+            long remaining = expiry - now();
+            if (remaining > 0) {
+                // Set again since, or ticks ran faster than the clock, e.g. while catching up after a stall
+                scheduleExpiry(this, TimeUnit.NANOSECONDS.toMillis(remaining) + 1);
+                return;
+            }
+            if (!table.compareAndSet(gemType.ordinal(), expiry, 0)) {
+                return;
+            }
+            pruneExpired(uuid);
+
+            Player player = Bukkit.getPlayer(uuid);
+            if (player != null) {
+                player.getScheduler().run(plugin, this, null);
+            }
+        }
+
+        /**
+         * Chimes and refreshes the action bar on the player's thread.
+         */
+        @Override
+        public void accept(ScheduledTask task) {
+            Player player = Bukkit.getPlayer(uuid);
+            if (player == null) {
+                return;
+            }
+            if (!player.hasPermission(BYPASS_PERMISSION)) {
+                player.playSound(player.getLocation(), Sound.BLOCK_AMETHYST_BLOCK_CHIME, 0.6f, 1.4f);
+            }
+            HudEntry entry = hudPlayers.get(uuid);
+            if (entry != null && entry.player == player) {
+                refresh(entry);
+                if (!cooldowns.containsKey(uuid)) {
+                    hudPlayers.remove(uuid, entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * A player whose cooldowns are shown in the action bar.
+     */
+    private static final class HudEntry {
+
+        /** Shown seconds value meaning the action bar was cleared or never set. */
+        private static final int NOTHING_SHOWN = -1;
+
+        private final Player player;
+
+        /** Last signature seen by the ticker; only touched on the global region. */
+        private long signature = -1;
+
+        /** Seconds currently shown; only touched on the player's thread. */
+        private int shownSeconds = NOTHING_SHOWN;
+
+        private HudEntry(Player player) {
+            this.player = player;
+        }
     }
 }
@@ -0,0 +1,90 @@
+package me.honeyberries.gemMod.manager;
+
+import me.honeyberries.gemMod.packet.PacketBackend;
+import org.bukkit.entity.Player;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <b>EquipmentMaskManager</b> keeps the entity IDs of players whose equipment other players must not see.
+ * </p>
+ * The active {@link PacketBackend} empties every outgoing equipment packet about a masked entity, including
+ * the one the server sends when a viewer starts tracking it, so equipment stays hidden without resending it.
+ * The set is concurrent, so the backend can read it from the netty threads without locking.
+ * </p>
+ */
+public class EquipmentMaskManager {
+
+    /** <b>Singleton instance</b> */
+    private static final EquipmentMaskManager INSTANCE = new EquipmentMaskManager();
+
+    /**
+     * <b>Entity IDs of the players whose equipment is masked.</b>
+     */
+    private final Set<Integer> maskedEntityIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * <b>Whether a backend is rewriting equipment packets.</b>
+     */
+    private volatile boolean enabled;
+
+    /**
+     * Returns the singleton instance of the EquipmentMaskManager.
+     * </p>
+     *
+     * @return the active EquipmentMaskManager instance.
+     */
+    public static synchronized EquipmentMaskManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Marks masking as available once the packet backend rewrites equipment packets.
+     * </p>
+     */
+    public void enable() {
+        enabled = true;
+    }
+
+    /**
+     * Checks whether masking is available, i.e. whether masked equipment is actually hidden.
+     * </p>
+     *
+     * @return true if a backend rewrites equipment packets; false otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts masking a player's equipment. Packets already sent are not affected.
+     * </p>
+     *
+     * @param player the player whose equipment is hidden
+     */
+    public void mask(Player player) {
+        maskedEntityIds.add(player.getEntityId());
+    }
+
+    /**
+     * Stops masking a player's equipment. Viewers keep seeing empty slots until the equipment is sent again.
+     * </p>
+     *
+     * @param player the player whose equipment is shown again
+     */
+    public void unmask(Player player) {
+        maskedEntityIds.remove(player.getEntityId());
+    }
+
+    /**
+     * Checks whether an entity's equipment is masked. Safe to call from any thread.
+     * </p>
+     *
+     * @param entityId the entity ID the packet is about
+     * @return true if outgoing equipment of the entity must be emptied; false otherwise.
+     */
+    public boolean isMasked(int entityId) {
+        return maskedEntityIds.contains(entityId);
+    }
+}
@@ -0,0 +1,209 @@
+package me.honeyberries.gemMod.manager;
+
+import me.honeyberries.gemMod.GemMod;
+import me.honeyberries.gemMod.manager.TimedEffectManager.TimedEffect;
+import me.honeyberries.gemMod.util.LogUtil;
+import org.bukkit.NamespacedKey;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.attribute.AttributeModifier;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Mob;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.EquipmentSlotGroup;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.util.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <b>FreezeManager</b> keeps the entities frozen by the Water Gem and locks their movement.
+ * </p>
+ * A freeze is applied once: transient attribute modifiers take away walking, flying and jumping and make the
+ * entity immune to knockback, and mobs lose their AI. Players are also held in place by the move veto of the
+ * {@link me.honeyberries.gemMod.listener.FreezeListener}, which checks this registry. Frozen entities still fall.
+ * A single delayed task on the entity's own scheduler releases it, so it follows the entity across regions.
+ * </p>
+ * The registry is keyed by entity UUID and concurrent, and each freeze carries a token, so an older release
+ * never ends a newer freeze of the same entity.
+ * </p>
+ */
+public class FreezeManager {
+
+    /** <b>Singleton instance</b> */
+    private static final FreezeManager INSTANCE = new FreezeManager();
+
+    /** <b>Reference to the main plugin instance</b> */
+    private final GemMod plugin = GemMod.getInstance();
+
+    /** <b>Reference to the timed effect manager, which remembers player freezes across a logout</b> */
+    private final TimedEffectManager timedEffectManager = TimedEffectManager.getInstance();
+
+    /**
+     * <b>Marks frozen mobs and stores whether they were aware, so a mob unloaded while frozen gets its AI back when loaded.</b>
+     */
+    private final NamespacedKey frozenKey;
+
+    /**
+     * <b>The attribute modifiers that lock an entity's movement.</b>
+     */
+    private final List<MovementLock> movementLocks = new ArrayList<>();
+
+    /**
+     * <b>Mapping of frozen entity UUIDs to their current freeze.</b>
+     */
+    private final Map<UUID, Freeze> frozen = new ConcurrentHashMap<>();
+
+    /**
+     * <b>Source of freeze tokens.</b>
+     */
+    private final AtomicLong nextToken = new AtomicLong();
+
+    /**
+     * An attribute modifier applied while an entity is frozen.
+     */
+    private record MovementLock(Attribute attribute, AttributeModifier modifier) {}
+
+    /**
+     * One freeze of an entity.
+     *
+     * @param token       identifies the freeze, so only its own release ends it
+     * @param effectToken the {@link TimedEffectManager} token for players, 0 for mobs
+     * @param wasAware    whether the mob had its AI before the freeze; true for players
+     */
+    private record Freeze(long token, long effectToken, boolean wasAware) {}
+
+    private FreezeManager() {
+        frozenKey = new NamespacedKey(plugin, "water_gem_frozen");
+        movementLock(Attribute.MOVEMENT_SPEED, "water_gem_freeze_speed", -1.0, AttributeModifier.Operation.MULTIPLY_SCALAR_1);
+        movementLock(Attribute.FLYING_SPEED, "water_gem_freeze_flying", -1.0, AttributeModifier.Operation.MULTIPLY_SCALAR_1);
+        movementLock(Attribute.JUMP_STRENGTH, "water_gem_freeze_jump", -1.0, AttributeModifier.Operation.MULTIPLY_SCALAR_1);
+        movementLock(Attribute.KNOCKBACK_RESISTANCE, "water_gem_freeze_knockback", 1.0, AttributeModifier.Operation.ADD_NUMBER);
+    }
+
+    /**
+     * Returns the singleton instance of the FreezeManager.
+     * </p>
+     *
+     * @return the active FreezeManager instance.
+     */
+    public static synchronized FreezeManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Freezes an entity for a number of ticks, or extends its freeze to end then. Must be called on the entity's thread.
+     * Player freezes are recorded as a {@link TimedEffect#FREEZE}, so they resume when the player rejoins.
+     * </p>
+     *
+     * @param entity the entity to freeze
+     * @param durationTicks how long the freeze lasts
+     */
+    public void freeze(LivingEntity entity, int durationTicks) {
+        UUID uuid = entity.getUniqueId();
+        long effectToken = entity instanceof Player
+                ? timedEffectManager.begin(uuid, TimedEffect.FREEZE, durationTicks * 50L)
+                : 0;
+        Freeze previous = frozen.get(uuid);
+        boolean wasAware = previous != null ? previous.wasAware() : !(entity instanceof Mob mob) || mob.isAware();
+        Freeze freeze = new Freeze(nextToken.incrementAndGet(), effectToken, wasAware);
+        frozen.put(uuid, freeze);
+        if (previous == null) {
+            lock(entity, wasAware);
+        }
+
+        // One release, retired with the entity if it leaves the server first
+        if (entity.getScheduler().runDelayed(plugin, task -> release(entity, freeze),
+                () -> frozen.remove(uuid, freeze), durationTicks) == null) {
+            release(entity, freeze);
+        }
+        LogUtil.verbose("Froze " + entity.getName() + " for " + (durationTicks / 20) + " seconds");
+    }
+
+    /**
+     * Checks whether an entity is frozen. Safe to call from any thread.
+     * </p>
+     *
+     * @param uuid the entity's UUID
+     * @return true if the entity is frozen; false otherwise.
+     */
+    public boolean isFrozen(UUID uuid) {
+        return frozen.containsKey(uuid);
+    }
+
+    /**
+     * Gives a mob that was unloaded while frozen its movement and AI back. Must be called on the entity's thread.
+     * </p>
+     *
+     * @param entity an entity that was just loaded
+     */
+    public void releaseStale(Entity entity) {
+        if (entity instanceof Mob mob && !frozen.containsKey(mob.getUniqueId())
+                && mob.getPersistentDataContainer().has(frozenKey, PersistentDataType.BOOLEAN)) {
+            unlock(mob);
+            LogUtil.verbose("Released " + mob.getName() + ", which was unloaded while frozen");
+        }
+    }
+
+    /**
+     * Ends a freeze, unless the entity was frozen again since.
+     * </p>
+     *
+     * @param entity the frozen entity
+     * @param freeze the freeze to end
+     */
+    private void release(LivingEntity entity, Freeze freeze) {
+        if (!frozen.remove(entity.getUniqueId(), freeze)) {
+            return;
+        }
+        unlock(entity);
+        if (entity instanceof Player) {
+            timedEffectManager.end(entity.getUniqueId(), TimedEffect.FREEZE, freeze.effectToken());
+        }
+        LogUtil.verbose("Unfroze " + entity.getName());
+    }
+
+    private void lock(LivingEntity entity, boolean wasAware) {
+        for (MovementLock lock : movementLocks) {
+            AttributeInstance instance = entity.getAttribute(lock.attribute());
+            if (instance != null && instance.getModifier(lock.modifier().getKey()) == null) {
+                instance.addTransientModifier(lock.modifier());
+            }
+        }
+        entity.setVelocity(new Vector());
+        if (entity instanceof Mob mob) {
+            mob.getPersistentDataContainer().set(frozenKey, PersistentDataType.BOOLEAN, wasAware);
+            mob.setAware(false);
+        }
+    }
+
+    private void unlock(LivingEntity entity) {
+        for (MovementLock lock : movementLocks) {
+            AttributeInstance instance = entity.getAttribute(lock.attribute());
+            if (instance != null) {
+                instance.removeModifier(lock.modifier().getKey());
+            }
+        }
+        if (entity instanceof Mob mob) {
+            PersistentDataContainer data = mob.getPersistentDataContainer();
+            Boolean wasAware = data.get(frozenKey, PersistentDataType.BOOLEAN);
+            if (wasAware != null) {
+                data.remove(frozenKey);
+                mob.setAware(wasAware);
+            }
+        }
+    }
+
+    private void movementLock(Attribute attribute, String key, double amount, AttributeModifier.Operation operation) {
+        NamespacedKey modifierKey = new NamespacedKey(plugin, key);
+        movementLocks.add(new MovementLock(attribute,
+                new AttributeModifier(modifierKey, amount, operation, EquipmentSlotGroup.ANY)));
+    }
+}
@@ -0,0 +1,228 @@
+package me.honeyberries.gemMod.manager;
+
+import me.honeyberries.gemMod.GemMod;
+import me.honeyberries.gemMod.manager.GemManager.GemType;
+import me.honeyberries.gemMod.util.LogUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * <b>GemHoldingsManager</b> keeps an index of which gem types every online player is carrying.
+ * </p>
+ * The index is built once when a player joins and rebuilt from inventory change events, so checking
+ * whether a player has a gem is a single map lookup instead of an inventory scan.
+ * Holdings are stored as a bitmask with one bit per {@link GemType#ordinal()}.
+ * </p>
+ * This index is the one shared view of holdings: passive perks, damage immunities and the Light Gem glow all
+ * read it or listen for its edges, so no task recomputes possession per tick. Its cost is paid only in
+ * {@link #track(Player)}, the single place to measure it.
+ * </p>
+ */
+public class GemHoldingsManager {
+
+    /** <b>Singleton instance</b> */
+    private static final GemHoldingsManager INSTANCE = new GemHoldingsManager();
+
+    /** <b>Reference to the main plugin instance</b> */
+    private final GemMod plugin = GemMod.getInstance();
+
+    /**
+     * <b>Mapping of player UUIDs to the bitmask of gem types in their inventory.</b>
+     */
+    private final Map<UUID, Integer> holdings = new ConcurrentHashMap<>();
+
+    /**
+     * <b>Players whose inventory rescan is already queued, used to coalesce bursts of events.</b>
+     */
+    private final Set<UUID> pendingRescans = ConcurrentHashMap.newKeySet();
+
+    /**
+     * <b>Listeners notified when a player gains or loses a gem type.</b>
+     */
+    private final List<HoldingsListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Receives gem holdings edges: called once when a player's holdings change, not on every check.
+     */
+    @FunctionalInterface
+    public interface HoldingsListener {
+
+        /**
+         * Called on the player's region thread after their holdings changed.
+         *
+         * @param player   the player whose holdings changed
+         * @param previous the holdings bitmask before the change
+         * @param current  the holdings bitmask after the change
+         */
+        void onHoldingsChanged(Player player, int previous, int current);
+    }
+
+    /**
+     * Returns the singleton instance of the GemHoldingsManager.
+     * </p>
+     *
+     * @return the active GemHoldingsManager instance.
+     */
+    public static synchronized GemHoldingsManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the bit used for a gem type in a holdings bitmask.
+     * </p>
+     *
+     * @param gemType the gem type
+     * @return the bitmask with only the gem type's bit set
+     */
+    public static int bit(GemType gemType) {
+        return 1 << gemType.ordinal();
+    }
+
+    /**
+     * Checks whether the player is carrying at least one gem of the given type.
+     * Players that are not indexed yet are scanned once and added to the index.
+     * </p>
+     *
+     * @param player the player to check
+     * @param gemType the gem type to look for
+     * @return true if the player has the gem; false otherwise.
+     */
+    public boolean hasGem(Player player, GemType gemType) {
+        return (getHoldings(player) & bit(gemType)) != 0;
+    }
+
+    /**
+     * Returns the bitmask of gem types the player is carrying.
+     * </p>
+     *
+     * @param player the player to look up
+     * @return the holdings bitmask, or 0 if the player carries no gems.
+     */
+    public int getHoldings(Player player) {
+        Integer mask = holdings.get(player.getUniqueId());
+        return mask != null ? mask : track(player);
+    }
+
+    /**
+     * Scans the player's inventory and stores the result in the index.
+     * Must be called from the player's region thread.
+     * </p>
+     *
+     * @param player the player to index
+     * @return the freshly computed holdings bitmask.
+     */
+    public int track(Player player) {
+        int mask = scanInventory(player);
+        Integer previous = holdings.put(player.getUniqueId(), mask);
+        int previousMask = previous != null ? previous : 0;
+        if (previous == null || previousMask != mask) {
+            LogUtil.verbose("Gem holdings for " + player.getName() + " updated: " + Integer.toBinaryString(mask));
+        }
+        if (previousMask != mask) {
+            fireHoldingsChanged(player, previousMask, mask);
+        }
+        return mask;
+    }
+
+    /**
+     * Indexes every player that is already online, e.g. after a plugin reload.
+     * </p>
+     */
+    public void trackOnlinePlayers() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            player.getScheduler().run(plugin, scheduledTask -> track(player), null);
+        }
+    }
+
+    /**
+     * Removes the player from the index.
+     * </p>
+     *
+     * @param player the player who left
+     */
+    public void untrack(Player player) {
+        UUID uuid = player.getUniqueId();
+        Integer previous = holdings.remove(uuid);
+        pendingRescans.remove(uuid);
+        if (previous != null && previous != 0) {
+            fireHoldingsChanged(player, previous, 0);
+        }
+    }
+
+    /**
+     * Registers a listener for gem holdings edges.
+     * </p>
+     *
+     * @param listener the listener to notify
+     */
+    public void addListener(HoldingsListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Notifies all listeners of a holdings change.
+     * </p>
+     *
+     * @param player the player whose holdings changed
+     * @param previous the holdings bitmask before the change
+     * @param current the holdings bitmask after the change
+     */
+    private void fireHoldingsChanged(Player player, int previous, int current) {
+        for (HoldingsListener listener : listeners) {
+            try {
+                listener.onHoldingsChanged(player, previous, current);
+            } catch (Exception e) {
+                LogUtil.severe("Error handling gem holdings change for " + player.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Queues a rescan of the player's inventory on their region thread for the next tick.
+     * Several calls within the same tick result in a single rescan.
+     * </p>
+     *
+     * @param player the player whose inventory changed
+     */
+    public void markDirty(Player player) {
+        UUID uuid = player.getUniqueId();
+        if (!pendingRescans.add(uuid)) {
+            return;
+        }
+        player.getScheduler().run(plugin, scheduledTask -> {
+            pendingRescans.remove(uuid);
+            if (player.isOnline()) {
+                track(player);
+            }
+        }, () -> pendingRescans.remove(uuid));
+    }
+
+    /**
+     * Computes the holdings bitmask by walking the player's storage slots once.
+     * </p>
+     *
+     * @param player the player whose inventory is scanned
+     * @return the bitmask of gem types found.
+     */
+    private static int scanInventory(Player player) {
+        int mask = 0;
+        for (ItemStack item : player.getInventory().getStorageContents()) {
+            if (item == null || item.isEmpty()) {
+                continue;
+            }
+            GemType gemType = GemManager.identifyGemType(item);
+            if (gemType != null) {
+                mask |= bit(gemType);
+            }
+        }
+        return mask;
+    }
+}
@@ -1,20 +1,19 @@
 package me.honeyberries.gemMod.manager;
 
 import io.papermc.paper.datacomponent.DataComponentTypes;
-import io.papermc.paper.datacomponent.item.CustomModelData;
-import net.kyori.adventure.text.Component;
+import me.honeyberries.gemMod.GemMod;
 import org.bukkit.Material;
-import org.bukkit.enchantments.Enchantment;
+import org.bukkit.NamespacedKey;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.List;
-import java.util.Objects;
-import net.kyori.adventure.text.format.TextColor;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
 
 /**
  * Manages the creation and identification of custom gem items.
@@ -35,16 +34,51 @@ public class GemManager {
         WATER
     }
 
+    /**
+     * The persistent data key holding the gem type name on every gem item.
+     */
+    public static final NamespacedKey GEM_TYPE_KEY = new NamespacedKey(GemMod.getInstance(), "gem_type");
+
+    /**
+     * The persistent data key holding the gem item format version, see {@link GemRegistry#FORMAT_VERSION}.
+     */
+    public static final NamespacedKey GEM_VERSION_KEY = new NamespacedKey(GemMod.getInstance(), "gem_version");
+
+    /**
+     * The item cooldown group of each gem type, so a cooldown on one gem only sweeps gems of the same type.
+     */
+    private static final Map<GemType, NamespacedKey> COOLDOWN_GROUPS = cooldownGroups();
+
+    private static Map<GemType, NamespacedKey> cooldownGroups() {
+        Map<GemType, NamespacedKey> groups = new EnumMap<>(GemType.class);
+        for (GemType gemType : GemType.values()) {
+            groups.put(gemType, new NamespacedKey(GemMod.getInstance(), gemType.name().toLowerCase() + "_gem"));
+        }
+        return Collections.unmodifiableMap(groups);
+    }
+
+    /**
+     * Returns the item cooldown group carried by gems of a type.
+     *
+     * @param gemType The gem type.
+     * @return The key of the gem type's cooldown group.
+     */
+    public static @NotNull NamespacedKey getCooldownGroup(@NotNull GemType gemType) {
+        return COOLDOWN_GROUPS.get(gemType);
+    }
+
     /**
      * Checks if a player has at least one gem of a specific type in their inventory.
+     * <p>
+     * This is a constant-time lookup in the {@link GemHoldingsManager} index, which is kept
+     * up to date from inventory change events.
      *
      * @param player  The player whose inventory is to be checked.
      * @param gemType The type of gem to look for.
      * @return {@code true} if the player has the gem, {@code false} otherwise.
      */
     public static boolean hasGem(Player player, GemType gemType) {
-        ItemStack gemItem = createGem(gemType, 1);
-        return player.getInventory().containsAtLeast(gemItem, 1);
+        return GemHoldingsManager.getInstance().hasGem(player, gemType);
     }
 
     /**
@@ -61,110 +95,92 @@ public class GemManager {
 
     /**
      * Identifies the type of a gem based on its item properties.
+     * <p>
+     * Gems are identified by the type tag in their persistent data container, so a lookup is one
+     * material check plus one tag read. Legacy gems without a tag are matched by their properties.
+     * The item is never changed, so this is safe from any query path; legacy and outdated gems are migrated by
+     * {@link #migrateGems(Inventory)} on the thread that owns them.
      *
      * @param item The item to identify.
      * @return The {@link GemType} if the item is a valid gem, or {@code null} if it is not.
      */
     public static @Nullable GemType identifyGemType(@Nullable ItemStack item) {
-        if (item == null) {
+        if (item == null || item.getType() != Material.DIAMOND) {
             return null;
         }
 
-        // Iterate through each gem type to check if the item matches.
-        for (GemType gemType : GemType.values()) {
-            if (item.isSimilar(createGem(gemType, 1))) {
-                return gemType;
-            }
+        String typeName = item.getPersistentDataContainer().get(GEM_TYPE_KEY, PersistentDataType.STRING);
+        if (typeName != null) {
+            return parseGemType(typeName);
+        }
+
+        // Untagged gems can only be legacy gems, which always carry custom model data.
+        if (!item.hasData(DataComponentTypes.CUSTOM_MODEL_DATA)) {
+            return null;
         }
-        // Return null if no match is found.
-        return null;
+        return GemRegistry.get().matchLegacyGem(item);
     }
 
     /**
-     * Creates a custom gem {@link ItemStack} with predefined properties such as name, lore, and enchantments.
+     * Re-tags a legacy gem and upgrades one from an older format version in place.
+     * Must be called on the thread that owns the item.
      *
-     * @param gemType The type of gem to create.
-     * @param amount  The number of gems to create.
-     * @return A new {@link ItemStack} representing the specified gem.
+     * @param item The item to migrate.
+     * @return {@code true} if the item was changed, {@code false} if it is not a gem or already up to date.
      */
-    public static ItemStack createGem(GemType gemType, int amount) {
-        ItemStack gemItemStack = new ItemStack(Material.DIAMOND, amount);
-        ItemMeta gemItemMeta = Objects.requireNonNull(gemItemStack.getItemMeta());
-
-        String customModelKey = null;
-
-        // Set gem properties based on its type.
-        switch (gemType) {
-            case AIR -> {
-                gemItemMeta.itemName(Component.text("Air Gem").color(TextColor.fromHexString("#f7ded1")));
-                gemItemMeta.lore(List.of(
-                        Component.text("Grants immunity to fall and flight damage.").color(TextColor.fromHexString("#ddfff8")),
-                        Component.text("Use this gem to dash forward with a burst of wind.").color(TextColor.fromHexString("#e7e3ff"))
-                ));
-                customModelKey = "airgem";
-            }
-            case DARKNESS -> {
-                gemItemMeta.itemName(Component.text("Darkness Gem").color(TextColor.fromHexString("#3c2c90")));
-                gemItemMeta.lore(List.of(
-                        Component.text("Become truly invisible, not showing armor or items.").color(TextColor.fromHexString("#1b46cb")),
-                        Component.text("Give players darkness and cover up their screens with shadow particles.").color(TextColor.fromHexString("#542285"))
-                ));
-                customModelKey = "darknessgem";
-            }
-            case EARTH -> {
-                gemItemMeta.itemName(Component.text("Earth Gem").color(TextColor.fromHexString("#3fd41e")));
-                gemItemMeta.lore(List.of(
-                        Component.text("Provides Haste II, Speed II, and Strength II.").color(TextColor.fromHexString("#4cd69b")),
-                        Component.text("This ability negates damage for a short period of time.").color(TextColor.fromHexString("#72d132"))
-                ));
-                customModelKey = "earthgem";
-            }
-            case FIRE -> {
-                gemItemMeta.itemName(Component.text("Fire Gem").color(TextColor.fromHexString("#ff6a2b")));
-                gemItemMeta.lore(List.of(
-                        Component.text("Grants Fire Resistance.").color(TextColor.fromHexString("#dc4772")),
-                        Component.text("Use the gem to launch a fireball.").color(TextColor.fromHexString("#ee3d24"))
-                ));
-                customModelKey = "firegem";
-            }
-            case ICE -> {
-                gemItemMeta.itemName(Component.text("Ice Gem").color(TextColor.fromHexString("#5fe3ff")));
-                gemItemMeta.lore(List.of(
-                        Component.text("Slows nearby foes and reduces damage taken.").color(TextColor.fromHexString("#cedfff")),
-                        Component.text("Right-click to freeze targets in place.").color(TextColor.fromHexString("#a4acff"))
-                ));
-                customModelKey = "icegem";
-            }
-            case LIGHT -> {
-                gemItemMeta.itemName(Component.text("Light Gem").color(TextColor.fromHexString("#ffff81")));
-                gemItemMeta.lore(List.of(
-                        Component.text("Lets you see players through walls.").color(TextColor.fromHexString("#eee27b")),
-                        Component.text("Activate the gem on a player to strike lightning on them.").color(TextColor.fromHexString("#eec04d"))
-                ));
-                customModelKey = "lightgem";
-            }
-            case WATER -> {
-                gemItemMeta.itemName(Component.text("Water Gem").color(TextColor.fromHexString("#2373E0")));
-                gemItemMeta.lore(List.of(
-                        Component.text("Gives Water Breathing and Dolphin’s Grace.").color(TextColor.fromHexString("#b9daff")),
-                        Component.text("Right-click to fire a high-pressure water jet.").color(TextColor.fromHexString("#40c7ff"))
-                ));
-                customModelKey = "watergem";
-            }
+    public static boolean migrateGem(@Nullable ItemStack item) {
+        if (item == null || item.getType() != Material.DIAMOND) {
+            return false;
+        }
+
+        String typeName = item.getPersistentDataContainer().get(GEM_TYPE_KEY, PersistentDataType.STRING);
+        if (typeName != null) {
+            GemType gemType = parseGemType(typeName);
+            return gemType != null && GemRegistry.get().upgradeIfOutdated(item, gemType);
         }
 
-        // Add a cosmetic enchantment and hide it from the tooltip.
-        gemItemMeta.addEnchant(Enchantment.MENDING, 1, true);
-        gemItemMeta.addItemFlags(ItemFlag.HIDE_ENCHANTS);
+        return item.hasData(DataComponentTypes.CUSTOM_MODEL_DATA) && GemRegistry.get().migrateLegacyGem(item) != null;
+    }
 
-        // Apply the metadata to the item.
-        gemItemStack.setItemMeta(gemItemMeta);
+    /**
+     * Migrates every gem in an inventory and writes changed stacks back to their slots.
+     * Must be called on the thread that owns the inventory, e.g. from its player's join, pickup or open event.
+     *
+     * @param inventory The inventory to migrate.
+     */
+    public static void migrateGems(@NotNull Inventory inventory) {
+        for (int slot = 0; slot < inventory.getSize(); slot++) {
+            ItemStack item = inventory.getItem(slot);
+            if (migrateGem(item)) {
+                inventory.setItem(slot, item);
+            }
+        }
+    }
 
-        if (customModelKey != null) {
-            CustomModelData customModelData = CustomModelData.customModelData().addString(customModelKey).build();
-            gemItemStack.setData(DataComponentTypes.CUSTOM_MODEL_DATA, customModelData);
+    /**
+     * Resolves a stored gem type name, ignoring names of gem types that no longer exist.
+     *
+     * @param typeName The gem type name read from the item.
+     * @return The matching {@link GemType}, or {@code null} if unknown.
+     */
+    private static @Nullable GemType parseGemType(@NotNull String typeName) {
+        try {
+            return GemType.valueOf(typeName);
+        } catch (IllegalArgumentException e) {
+            return null;
         }
+    }
 
-        return gemItemStack;
+    /**
+     * Creates a custom gem {@link ItemStack} with predefined properties such as name, lore, and enchantments.
+     * <p>
+     * The gem is cloned from the prototype held by the {@link GemRegistry}.
+     *
+     * @param gemType The type of gem to create.
+     * @param amount  The number of gems to create.
+     * @return A new {@link ItemStack} representing the specified gem.
+     */
+    public static ItemStack createGem(GemType gemType, int amount) {
+        return GemRegistry.get().createGem(gemType, amount);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,312 @@
+package me.honeyberries.gemMod.manager;
+
+import io.papermc.paper.datacomponent.DataComponentTypes;
+import io.papermc.paper.datacomponent.item.CustomModelData;
+import io.papermc.paper.datacomponent.item.UseCooldown;
+import me.honeyberries.gemMod.manager.GemManager.GemType;
+import me.honeyberries.gemMod.util.LogUtil;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextColor;
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <b>GemRegistry</b> holds one immutable prototype {@link ItemStack} per {@link GemType}.
+ * </p>
+ * Prototypes are built once and gems are handed out as clones, so creating a gem no longer parses
+ * colours or allocates lore. Every gem carries the {@link #FORMAT_VERSION} it was created with, which lets gems
+ * from earlier builds be detected and upgraded lazily. The active registry is swapped atomically by {@link #reload()}.
+ * </p>
+ */
+public final class GemRegistry {
+
+    /**
+     * The current gem item format version, stamped on every gem. Bump this whenever the gem definitions below
+     * change; gems from earlier builds are then upgraded lazily by {@link #upgradeIfOutdated(ItemStack, GemType)}.
+     */
+    public static final int FORMAT_VERSION = 2;
+
+    /** <b>The active registry, replaced as a whole on reload</b> */
+    private static final AtomicReference<GemRegistry> CURRENT = new AtomicReference<>();
+
+    /** <b>Tagged gem prototypes with an amount of one</b> */
+    private final Map<GemType, ItemStack> prototypes;
+
+    /** <b>Untagged gems as they were created before gems carried a type tag</b> */
+    private final Map<GemType, ItemStack> legacyPrototypes;
+
+    private GemRegistry() {
+        Map<GemType, ItemStack> tagged = new EnumMap<>(GemType.class);
+        Map<GemType, ItemStack> legacy = new EnumMap<>(GemType.class);
+        for (GemType gemType : GemType.values()) {
+            tagged.put(gemType, buildPrototype(gemType, true));
+            legacy.put(gemType, buildPrototype(gemType, false));
+        }
+        this.prototypes = Collections.unmodifiableMap(tagged);
+        this.legacyPrototypes = Collections.unmodifiableMap(legacy);
+    }
+
+    /**
+     * Returns the active registry, building it on first use.
+     * </p>
+     *
+     * @return the active GemRegistry.
+     */
+    public static GemRegistry get() {
+        GemRegistry registry = CURRENT.get();
+        if (registry == null) {
+            CURRENT.compareAndSet(null, new GemRegistry());
+            registry = CURRENT.get();
+        }
+        return registry;
+    }
+
+    /**
+     * Rebuilds all prototypes and atomically replaces the active registry.
+     * Callers that already hold the old registry keep a consistent view of it.
+     * </p>
+     *
+     * @return the newly active GemRegistry.
+     */
+    public static GemRegistry reload() {
+        GemRegistry registry = new GemRegistry();
+        CURRENT.set(registry);
+        LogUtil.verbose("Gem registry rebuilt");
+        return registry;
+    }
+
+    /**
+     * Returns a clone of the prototype for the gem type with the requested amount.
+     * </p>
+     *
+     * @param gemType the type of gem to create
+     * @param amount the number of gems in the stack
+     * @return a new {@link ItemStack} representing the gem.
+     */
+    public @NotNull ItemStack createGem(@NotNull GemType gemType, int amount) {
+        ItemStack gem = prototypes.get(gemType).clone();
+        gem.setAmount(amount);
+        return gem;
+    }
+
+    /**
+     * Returns the shared prototype of a gem type, for callers that only read it, e.g. to name the gem's
+     * cooldown group. The returned stack must not be modified.
+     * </p>
+     *
+     * @param gemType the type of gem
+     * @return the prototype {@link ItemStack} with an amount of one.
+     */
+    public @NotNull ItemStack getPrototype(@NotNull GemType gemType) {
+        return prototypes.get(gemType);
+    }
+
+    /**
+     * Checks whether a tagged gem item was created with an older format version.
+     * </p>
+     *
+     * @param item the tagged gem item
+     * @return true if the item should be upgraded; false otherwise.
+     */
+    public boolean isOutdated(@NotNull ItemStack item) {
+        Integer itemVersion = item.getPersistentDataContainer().get(GemManager.GEM_VERSION_KEY, PersistentDataType.INTEGER);
+        return itemVersion == null || itemVersion < FORMAT_VERSION;
+    }
+
+    /**
+     * Replaces the properties and components of an outdated gem item with those of the current prototype,
+     * keeping its amount. Must be called on the thread that owns the item.
+     * </p>
+     *
+     * @param item the tagged gem item, changed in place
+     * @param gemType the type of the gem
+     * @return true if the item was upgraded; false if it was up to date.
+     */
+    public boolean upgradeIfOutdated(@NotNull ItemStack item, @NotNull GemType gemType) {
+        if (!isOutdated(item)) {
+            return false;
+        }
+        applyPrototype(item, gemType);
+        LogUtil.verbose("Upgraded " + gemType.name() + " gem to format version " + FORMAT_VERSION);
+        return true;
+    }
+
+    /**
+     * Matches an untagged item against the legacy gems without changing it.
+     * </p>
+     *
+     * @param item the untagged item to check
+     * @return the {@link GemType} of the legacy gem, or null if it is not a gem.
+     */
+    public @Nullable GemType matchLegacyGem(@NotNull ItemStack item) {
+        for (Map.Entry<GemType, ItemStack> entry : legacyPrototypes.entrySet()) {
+            if (item.isSimilar(entry.getValue())) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Matches an untagged item against the legacy gems and tags it in place if it is one.
+     * Must be called on the thread that owns the item.
+     * </p>
+     *
+     * @param item the untagged item to migrate
+     * @return the {@link GemType} of the legacy gem, or null if it is not a gem.
+     */
+    public @Nullable GemType migrateLegacyGem(@NotNull ItemStack item) {
+        GemType gemType = matchLegacyGem(item);
+        if (gemType != null) {
+            applyPrototype(item, gemType);
+            LogUtil.verbose("Migrated legacy " + gemType.name() + " gem to tagged format");
+        }
+        return gemType;
+    }
+
+    /**
+     * Copies the meta and the data components set outside of it from the prototype of a gem type.
+     *
+     * @param item    The item to change in place.
+     * @param gemType The type of gem.
+     */
+    private void applyPrototype(@NotNull ItemStack item, @NotNull GemType gemType) {
+        ItemStack prototype = prototypes.get(gemType);
+        item.setItemMeta(prototype.getItemMeta());
+        CustomModelData customModelData = prototype.getData(DataComponentTypes.CUSTOM_MODEL_DATA);
+        if (customModelData != null) {
+            item.setData(DataComponentTypes.CUSTOM_MODEL_DATA, customModelData);
+        }
+        UseCooldown useCooldown = prototype.getData(DataComponentTypes.USE_COOLDOWN);
+        if (useCooldown != null) {
+            item.setData(DataComponentTypes.USE_COOLDOWN, useCooldown);
+        }
+    }
+
+    /**
+     * Writes the gem type and format version tags to a persistent data container.
+     *
+     * @param container The container to write to.
+     * @param gemType   The gem type to store.
+     */
+    private static void tagGem(@NotNull PersistentDataContainer container, @NotNull GemType gemType) {
+        container.set(GemManager.GEM_TYPE_KEY, PersistentDataType.STRING, gemType.name());
+        container.set(GemManager.GEM_VERSION_KEY, PersistentDataType.INTEGER, FORMAT_VERSION);
+    }
+
+    /**
+     * Builds a gem item from scratch, optionally without the type tag used by legacy gems.
+     *
+     * @param gemType The type of gem to build.
+     * @param tagged  Whether to write the gem type and format version tags.
+     * @return A new single {@link ItemStack} representing the specified gem.
+     */
+    private static ItemStack buildPrototype(GemType gemType, boolean tagged) {
+        ItemStack gemItemStack = new ItemStack(Material.DIAMOND, 1);
+        ItemMeta gemItemMeta = Objects.requireNonNull(gemItemStack.getItemMeta());
+
+        String customModelKey = null;
+
+        // Set gem properties based on its type.
+        switch (gemType) {
+            case AIR -> {
+                gemItemMeta.itemName(Component.text("Air Gem").color(TextColor.fromHexString("#f7ded1")));
+                gemItemMeta.lore(List.of(
+                        Component.text("Grants immunity to fall and flight damage.").color(TextColor.fromHexString("#ddfff8")),
+                        Component.text("Use this gem to dash forward with a burst of wind.").color(TextColor.fromHexString("#e7e3ff"))
+                ));
+                customModelKey = "airgem";
+            }
+            case DARKNESS -> {
+                gemItemMeta.itemName(Component.text("Darkness Gem").color(TextColor.fromHexString("#3c2c90")));
+                gemItemMeta.lore(List.of(
+                        Component.text("Become truly invisible, not showing armor or items.").color(TextColor.fromHexString("#1b46cb")),
+                        Component.text("Give players darkness and cover up their screens with shadow particles.").color(TextColor.fromHexString("#542285"))
+                ));
+                customModelKey = "darknessgem";
+            }
+            case EARTH -> {
+                gemItemMeta.itemName(Component.text("Earth Gem").color(TextColor.fromHexString("#3fd41e")));
+                gemItemMeta.lore(List.of(
+                        Component.text("Provides Haste II, Speed II, and Strength II.").color(TextColor.fromHexString("#4cd69b")),
+                        Component.text("This ability negates damage for a short period of time.").color(TextColor.fromHexString("#72d132"))
+                ));
+                customModelKey = "earthgem";
+            }
+            case FIRE -> {
+                gemItemMeta.itemName(Component.text("Fire Gem").color(TextColor.fromHexString("#ff6a2b")));
+                gemItemMeta.lore(List.of(
+                        Component.text("Grants Fire Resistance.").color(TextColor.fromHexString("#dc4772")),
+                        Component.text("Use the gem to launch a fireball.").color(TextColor.fromHexString("#ee3d24"))
+                ));
+                customModelKey = "firegem";
+            }
+            case ICE -> {
+                gemItemMeta.itemName(Component.text("Ice Gem").color(TextColor.fromHexString("#5fe3ff")));
+                gemItemMeta.lore(List.of(
+                        Component.text("Slows nearby foes and reduces damage taken.").color(TextColor.fromHexString("#cedfff")),
+                        Component.text("Right-click to freeze targets in place.").color(TextColor.fromHexString("#a4acff"))
+                ));
+                customModelKey = "icegem";
+            }
+            case LIGHT -> {
+                gemItemMeta.itemName(Component.text("Light Gem").color(TextColor.fromHexString("#ffff81")));
+                gemItemMeta.lore(List.of(
+                        Component.text("Lets you see players through walls.").color(TextColor.fromHexString("#eee27b")),
+                        Component.text("Activate the gem on a player to strike lightning on them.").color(TextColor.fromHexString("#eec04d"))
+                ));
+                customModelKey = "lightgem";
+            }
+            case WATER -> {
+                gemItemMeta.itemName(Component.text("Water Gem").color(TextColor.fromHexString("#2373E0")));
+                gemItemMeta.lore(List.of(
+                        Component.text("Gives Water Breathing and Dolphin’s Grace.").color(TextColor.fromHexString("#b9daff")),
+                        Component.text("Right-click to fire a high-pressure water jet.").color(TextColor.fromHexString("#40c7ff"))
+                ));
+                customModelKey = "watergem";
+            }
+        }
+
+        // Add a cosmetic enchantment and hide it from the tooltip.
+        gemItemMeta.addEnchant(Enchantment.MENDING, 1, true);
+        gemItemMeta.addItemFlags(ItemFlag.HIDE_ENCHANTS);
+
+        // Tag the gem so it can be identified without comparing its properties.
+        if (tagged) {
+            tagGem(gemItemMeta.getPersistentDataContainer(), gemType);
+        }
+
+        // Apply the metadata to the item.
+        gemItemStack.setItemMeta(gemItemMeta);
+
+        if (customModelKey != null) {
+            CustomModelData customModelData = CustomModelData.customModelData().addString(customModelKey).build();
+            gemItemStack.setData(DataComponentTypes.CUSTOM_MODEL_DATA, customModelData);
+        }
+
+        // Give each gem type its own cooldown group, so the client draws ability cooldowns on the item.
+        // Gems are never consumed, so the length here is unused; CooldownManager sets it per ability.
+        if (tagged) {
+            UseCooldown useCooldown = UseCooldown.useCooldown(1.0f)
+                    .cooldownGroup(GemManager.getCooldownGroup(gemType))
+                    .build();
+            gemItemStack.setData(DataComponentTypes.USE_COOLDOWN, useCooldown);
+        }
+
+        return gemItemStack;
+    }
+}
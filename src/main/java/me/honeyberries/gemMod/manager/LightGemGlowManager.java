@@ -0,0 +1,277 @@
+package me.honeyberries.gemMod.manager;
+
+import me.honeyberries.gemMod.GemMod;
+import me.honeyberries.gemMod.manager.GemHoldingsManager.HoldingsListener;
+import me.honeyberries.gemMod.manager.GemManager.GemType;
+import me.honeyberries.gemMod.packet.PacketBackend;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <b>LightGemGlowManager</b> tracks which players see other players glowing through the Light Gem.
+ * </p>
+ * The glow itself is added by the active {@link PacketBackend}, which rewrites outgoing entity metadata for
+ * viewers in this manager. All of its state is concurrent, so the backend can read it from the netty threads
+ * without locking. Viewers are added and removed on holdings edges, which
+ * also resend the current flags of every player the viewer's client is tracking, so the glow appears or clears
+ * right away. When a player comes into a viewer's tracking range later, their flags are sent once as well:
+ * spawn metadata only carries non-default values, so it usually has no flags entry for the backend to rewrite.
+ * Nothing is sent when a target's own flags change, e.g. when they sneak, sprint or catch fire: the server
+ * sends that metadata itself and the backend sets the glowing bit in it on the way out.
+ * </p>
+ */
+public class LightGemGlowManager implements HoldingsListener {
+
+    /** <b>Singleton instance</b> */
+    private static final LightGemGlowManager INSTANCE = new LightGemGlowManager();
+
+    /** <b>The bit of the entity flags byte that makes an entity glow</b> */
+    public static final byte GLOWING_FLAG = 0x40;
+
+    /** <b>Reference to the main plugin instance</b> */
+    private final GemMod plugin = GemMod.getInstance();
+
+    /**
+     * <b>Players holding the Light Gem, mapped to their own entity ID so they never see themselves glow.</b>
+     */
+    private final Map<UUID, Integer> viewers = new ConcurrentHashMap<>();
+
+    /**
+     * <b>Entity IDs of all online players, the only entities that glow.</b>
+     */
+    private final Set<Integer> playerEntityIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * <b>The backend that rewrites and sends packets, or null while the glow is disabled.</b>
+     */
+    private volatile PacketBackend backend;
+
+    /**
+     * <b>The other players each player's client is currently tracking, kept from track and untrack events.</b>
+     */
+    private final Map<UUID, Set<Player>> trackedPlayers = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the singleton instance of the LightGemGlowManager.
+     * </p>
+     *
+     * @return the active LightGemGlowManager instance.
+     */
+    public static synchronized LightGemGlowManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts following holdings edges and registers the players that are already online, along with
+     * whoever is already tracking them. Their Light Gems are picked up by the holdings edges fired when
+     * they are indexed.
+     * </p>
+     *
+     * @param backend the enabled backend that rewrites and sends packets
+     */
+    public void enable(PacketBackend backend) {
+        this.backend = backend;
+        GemHoldingsManager.getInstance().addListener(this);
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            addPlayer(player);
+            player.getScheduler().run(plugin, scheduledTask -> {
+                for (Player viewer : player.getTrackedBy()) {
+                    trackPlayer(viewer, player);
+                }
+            }, null);
+        }
+    }
+
+    /**
+     * Returns the backend that rewrites and sends packets.
+     * </p>
+     *
+     * @return the active backend, or null if the glow is disabled.
+     */
+    public PacketBackend getBackend() {
+        return backend;
+    }
+
+    /**
+     * Registers a player entity that may glow for Light Gem holders and attaches the backend to their connection.
+     * </p>
+     *
+     * @param player the player who joined
+     */
+    public void addPlayer(Player player) {
+        playerEntityIds.add(player.getEntityId());
+        PacketBackend active = backend;
+        if (active != null) {
+            active.inject(player);
+        }
+    }
+
+    /**
+     * Forgets a player, both as a glowing target and as a viewer.
+     * </p>
+     *
+     * @param player the player who left
+     */
+    public void removePlayer(Player player) {
+        playerEntityIds.remove(player.getEntityId());
+        viewers.remove(player.getUniqueId());
+        trackedPlayers.remove(player.getUniqueId());
+        PacketBackend active = backend;
+        if (active != null) {
+            active.uninject(player);
+        }
+    }
+
+    /**
+     * Records that a viewer's client started tracking another player, and sends the target's flags with the
+     * glow if the viewer holds the Light Gem.
+     * </p>
+     *
+     * @param viewer the player whose client tracks the target
+     * @param target the player that came into tracking range
+     */
+    public void trackPlayer(Player viewer, Player target) {
+        trackedPlayers.computeIfAbsent(viewer.getUniqueId(), uuid -> ConcurrentHashMap.newKeySet()).add(target);
+        if (isViewer(viewer.getUniqueId())) {
+            scheduleFlags(viewer, target);
+        }
+    }
+
+    /**
+     * Records that a viewer's client stopped tracking another player.
+     * </p>
+     *
+     * @param viewer the player whose client tracked the target
+     * @param target the player that left tracking range
+     */
+    public void untrackPlayer(Player viewer, Player target) {
+        Set<Player> tracked = trackedPlayers.get(viewer.getUniqueId());
+        if (tracked != null) {
+            tracked.remove(target);
+        }
+    }
+
+    /**
+     * Checks whether the player is holding the Light Gem. Safe to call from any thread.
+     * </p>
+     *
+     * @param viewer the UUID of the player receiving packets
+     * @return true if the player sees other players glow; false otherwise.
+     */
+    public boolean isViewer(UUID viewer) {
+        return viewers.containsKey(viewer);
+    }
+
+    /**
+     * Checks whether an entity should glow for a viewer. Safe to call from any thread.
+     * </p>
+     *
+     * @param viewer the UUID of the player receiving packets
+     * @param entityId the entity ID the packet is about
+     * @return true if the entity is another player and the viewer holds the Light Gem; false otherwise.
+     */
+    public boolean shouldGlow(UUID viewer, int entityId) {
+        Integer ownId = viewers.get(viewer);
+        return ownId != null && ownId != entityId && playerEntityIds.contains(entityId);
+    }
+
+    /**
+     * Adds or removes the player as a viewer when they gain or lose the Light Gem.
+     * </p>
+     *
+     * @param player the player whose holdings changed
+     * @param previous the holdings bitmask before the change
+     * @param current the holdings bitmask after the change
+     */
+    @Override
+    public void onHoldingsChanged(Player player, int previous, int current) {
+        int light = GemHoldingsManager.bit(GemType.LIGHT);
+        boolean had = (previous & light) != 0;
+        boolean has = (current & light) != 0;
+        if (had == has) {
+            return;
+        }
+        if (has) {
+            viewers.put(player.getUniqueId(), player.getEntityId());
+        } else if (viewers.remove(player.getUniqueId()) == null) {
+            // Already removed because the player left
+            return;
+        }
+        refreshTargets(player);
+    }
+
+    /**
+     * Resends the entity flags of every player the viewer is tracking once. The packet listener adds
+     * the glow if the viewer is holding the Light Gem, so this both shows and clears it.
+     * Players out of tracking range are skipped, as the client has no entity to update.
+     * Flags are read on each target's own region thread.
+     * </p>
+     *
+     * @param viewer the player whose view is refreshed
+     */
+    private void refreshTargets(Player viewer) {
+        Set<Player> tracked = trackedPlayers.get(viewer.getUniqueId());
+        if (tracked == null) {
+            return;
+        }
+        for (Player target : tracked) {
+            scheduleFlags(viewer, target);
+        }
+    }
+
+    /**
+     * Sends a target player's current entity flags to a viewer on the target's next tick, after any spawn
+     * packets queued on this tick.
+     * </p>
+     *
+     * @param viewer the player who receives the flags
+     * @param target the player whose flags are sent
+     */
+    private void scheduleFlags(Player viewer, Player target) {
+        target.getScheduler().run(plugin, scheduledTask -> {
+            if (viewer.isOnline() && target.isOnline()) {
+                sendFlags(viewer, target);
+            }
+        }, null);
+    }
+
+    /**
+     * Queues a target player's current entity flags for a viewer, with the glow if the viewer holds the
+     * Light Gem. The backend may send it pre-encoded, bypassing its own rewriting, so the glow bit is set here.
+     * </p>
+     *
+     * @param viewer the player who receives the flags
+     * @param target the player whose flags are sent
+     */
+    private void sendFlags(Player viewer, Player target) {
+        int targetId = target.getEntityId();
+        byte flags = getBaseFlags(target);
+        if (shouldGlow(viewer.getUniqueId(), targetId)) {
+            flags |= GLOWING_FLAG;
+        }
+        PacketBackend active = backend;
+        if (active != null) {
+            active.sendEntityFlags(viewer, targetId, flags);
+        }
+    }
+
+    /**
+     * Builds the entity flags byte of a player from their current state, without the glowing bit.
+     * </p>
+     *
+     * @param player the player whose flags are built
+     * @return the entity flags.
+     */
+    private static byte getBaseFlags(Player player) {
+        return (byte) ((player.getFireTicks() > 0 ? 0x01 : 0) |
+                (player.isSneaking() ? 0x02 : 0) | (player.isSprinting() ? 0x08 : 0) |
+                (player.isSwimming() ? 0x10 : 0) |
+                (player.isInvisible() ? 0x20 : 0) |
+                (player.isGliding() ? 0x80 : 0));
+    }
+}
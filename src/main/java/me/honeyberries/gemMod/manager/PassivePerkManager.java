@@ -0,0 +1,195 @@
+package me.honeyberries.gemMod.manager;
+
+import me.honeyberries.gemMod.GemMod;
+import me.honeyberries.gemMod.manager.GemManager.GemType;
+import me.honeyberries.gemMod.util.LogUtil;
+import org.bukkit.NamespacedKey;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.attribute.AttributeModifier;
+import org.bukkit.entity.Player;
+import org.bukkit.event.entity.EntityDamageEvent.DamageCause;
+import org.bukkit.inventory.EquipmentSlotGroup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <b>PassivePerkManager</b> grants gem passives on the edges of gem possession instead of by polling.
+ * </p>
+ * When a player gains a gem, its namespaced attribute modifiers are applied once, and removed again
+ * when the gem is lost. Passives that are damage immunities are checked against the holdings index
+ * when damage happens, so nothing runs per tick for holders in steady state.
+ * </p>
+ * <ul>
+ *   <li><b>Air Gem:</b> Immunity to fall and fly-into-wall damage</li>
+ *   <li><b>Earth Gem:</b> Haste, Speed and Strength as block break speed, attack speed, movement speed and attack damage modifiers</li>
+ *   <li><b>Fire Gem:</b> Immunity to fire, burning, lava, magma and campfire damage</li>
+ *   <li><b>Water Gem:</b> Oxygen bonus and water movement efficiency modifiers, plus drowning immunity</li>
+ * </ul>
+ */
+public class PassivePerkManager implements GemHoldingsManager.HoldingsListener {
+
+    /** <b>Singleton instance</b> */
+    private static final PassivePerkManager INSTANCE = new PassivePerkManager();
+
+    /** <b>Reference to the main plugin instance</b> */
+    private final GemMod plugin = GemMod.getInstance();
+
+    /**
+     * <b>An attribute modifier granted while a gem type is carried.</b>
+     */
+    private record AttributePerk(GemType gemType, Attribute attribute, AttributeModifier modifier) {}
+
+    /**
+     * <b>All attribute perks, applied only when attribute passives are enabled.</b>
+     */
+    private final List<AttributePerk> attributePerks = new ArrayList<>();
+
+    /**
+     * <b>For each damage cause ordinal, the bitmask of gem types granting immunity to it.</b>
+     */
+    private final int[] immunityMasks = new int[DamageCause.values().length];
+
+    /**
+     * <b>Whether Earth, Fire and Water passives are granted here rather than by the potion task.</b>
+     */
+    private volatile boolean attributePassives = false;
+
+    /**
+     * Returns the singleton instance of the PassivePerkManager.
+     * </p>
+     *
+     * @return the active PassivePerkManager instance.
+     */
+    public static synchronized PassivePerkManager getInstance() {
+        return INSTANCE;
+    }
+
+    private PassivePerkManager() {
+        // The Air Gem's immunities have always been damage filters and apply in every mode.
+        immunity(GemType.AIR, DamageCause.FALL, DamageCause.FLY_INTO_WALL);
+
+        // Perks are defined in every mode, so modifiers left by an earlier attributes-mode run can be removed.
+        attributePerk(GemType.EARTH, Attribute.BLOCK_BREAK_SPEED, "earth_gem_haste", 0.4, AttributeModifier.Operation.MULTIPLY_SCALAR_1);
+        attributePerk(GemType.EARTH, Attribute.ATTACK_SPEED, "earth_gem_haste_attack", 0.2, AttributeModifier.Operation.MULTIPLY_SCALAR_1);
+        attributePerk(GemType.EARTH, Attribute.MOVEMENT_SPEED, "earth_gem_speed", 0.4, AttributeModifier.Operation.MULTIPLY_SCALAR_1);
+        attributePerk(GemType.EARTH, Attribute.ATTACK_DAMAGE, "earth_gem_strength", 6.0, AttributeModifier.Operation.ADD_NUMBER);
+        attributePerk(GemType.WATER, Attribute.OXYGEN_BONUS, "water_gem_breathing", 1024.0, AttributeModifier.Operation.ADD_NUMBER);
+        attributePerk(GemType.WATER, Attribute.WATER_MOVEMENT_EFFICIENCY, "water_gem_grace", 1.0, AttributeModifier.Operation.ADD_NUMBER);
+    }
+
+    /**
+     * Enables edge-triggered Earth, Fire and Water passives, replacing the potion effect task.
+     * Registers for holdings edges and applies perks to players that are already online.
+     * </p>
+     */
+    public void enableAttributePassives() {
+        immunity(GemType.FIRE, DamageCause.FIRE, DamageCause.FIRE_TICK, DamageCause.LAVA, DamageCause.HOT_FLOOR, DamageCause.CAMPFIRE);
+        immunity(GemType.WATER, DamageCause.DROWNING);
+
+        attributePassives = true;
+        GemHoldingsManager holdingsManager = GemHoldingsManager.getInstance();
+        holdingsManager.addListener(this);
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            player.getScheduler().run(plugin, scheduledTask -> {
+                removeAllPerks(player);
+                applyPerks(player, holdingsManager.getHoldings(player));
+            }, null);
+        }
+        LogUtil.verbose("Attribute passives enabled with " + attributePerks.size() + " attribute perks");
+    }
+
+    /**
+     * Checks whether a player is immune to a damage cause through a gem they carry.
+     * </p>
+     *
+     * @param player the damaged player
+     * @param cause the cause of the damage
+     * @return true if the damage should be cancelled; false otherwise.
+     */
+    public boolean isImmune(Player player, DamageCause cause) {
+        int gems = immunityMasks[cause.ordinal()];
+        return gems != 0 && (GemHoldingsManager.getInstance().getHoldings(player) & gems) != 0;
+    }
+
+    /**
+     * Applies perks for gained gem types and removes perks for lost ones.
+     * </p>
+     *
+     * @param player the player whose holdings changed
+     * @param previous the holdings bitmask before the change
+     * @param current the holdings bitmask after the change
+     */
+    @Override
+    public void onHoldingsChanged(Player player, int previous, int current) {
+        if (!attributePassives) {
+            return;
+        }
+        int gained = current & ~previous;
+        int lost = previous & ~current;
+        for (AttributePerk perk : attributePerks) {
+            int bit = GemHoldingsManager.bit(perk.gemType());
+            if ((gained & bit) != 0) {
+                apply(player, perk);
+            } else if ((lost & bit) != 0) {
+                remove(player, perk);
+            }
+        }
+    }
+
+    /**
+     * Removes every perk modifier from a player, whatever the passive mode, e.g. ones left over from a crash while
+     * they held a gem or from a run with attribute passives before switching to potions.
+     * Must be called from the player's region thread, before their holdings are indexed on join.
+     * </p>
+     *
+     * @param player the player to clean up
+     */
+    public void removeAllPerks(Player player) {
+        for (AttributePerk perk : attributePerks) {
+            remove(player, perk);
+        }
+    }
+
+    /**
+     * Applies the perks of every gem type in the holdings bitmask.
+     * </p>
+     *
+     * @param player the player to update
+     * @param holdings the holdings bitmask
+     */
+    private void applyPerks(Player player, int holdings) {
+        for (AttributePerk perk : attributePerks) {
+            if ((holdings & GemHoldingsManager.bit(perk.gemType())) != 0) {
+                apply(player, perk);
+            }
+        }
+    }
+
+    private void apply(Player player, AttributePerk perk) {
+        AttributeInstance instance = player.getAttribute(perk.attribute());
+        if (instance != null && instance.getModifier(perk.modifier().getKey()) == null) {
+            instance.addModifier(perk.modifier());
+        }
+    }
+
+    private void remove(Player player, AttributePerk perk) {
+        AttributeInstance instance = player.getAttribute(perk.attribute());
+        if (instance != null) {
+            instance.removeModifier(perk.modifier().getKey());
+        }
+    }
+
+    private void attributePerk(GemType gemType, Attribute attribute, String key, double amount, AttributeModifier.Operation operation) {
+        NamespacedKey modifierKey = new NamespacedKey(plugin, key);
+        attributePerks.add(new AttributePerk(gemType, attribute,
+                new AttributeModifier(modifierKey, amount, operation, EquipmentSlotGroup.ANY)));
+    }
+
+    private void immunity(GemType gemType, DamageCause... causes) {
+        for (DamageCause cause : causes) {
+            immunityMasks[cause.ordinal()] |= GemHoldingsManager.bit(gemType);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package me.honeyberries.gemMod.manager;
+
+import org.bukkit.FluidCollisionMode;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.util.BoundingBox;
+import org.bukkit.util.RayTraceResult;
+import org.bukkit.util.Vector;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <b>TargetingManager</b> finds the living entity a player is looking at for the Light and Water Gem abilities.
+ * </p>
+ * The ray is first traced against blocks, so entities behind the first solid block are never considered. The
+ * remaining ray is then walked in short segments, and each segment only asks the world's entity section grid
+ * for the entities overlapping that segment's box, rather than one box spanning the whole ray. The first
+ * segment with a hit holds the nearest target, so the walk stops there.
+ * </p>
+ * Results are kept per player for the rest of the tick, so repeated clicks from the same spot reuse them.
+ * Lookup counts, cache hits and latency are recorded for {@code /gemmod targeting}.
+ * </p>
+ */
+public class TargetingManager {
+
+    /** <b>Singleton instance</b> */
+    private static final TargetingManager INSTANCE = new TargetingManager();
+
+    /** <b>Length of the ray segment covered by each entity query, in blocks</b> */
+    private static final double SEGMENT_LENGTH = 16.0;
+
+    /**
+     * <b>The last lookup of each player, reused within the same tick.</b>
+     */
+    private final Map<UUID, CachedTarget> lastLookups = new ConcurrentHashMap<>();
+
+    /** <b>Number of lookups that traced a ray</b> */
+    private final LongAdder traces = new LongAdder();
+
+    /** <b>Number of lookups answered from the per-tick cache</b> */
+    private final LongAdder cacheHits = new LongAdder();
+
+    /** <b>Total time spent tracing, in nanoseconds</b> */
+    private final LongAdder traceNanos = new LongAdder();
+
+    /** <b>Longest single trace, in nanoseconds</b> */
+    private final LongAccumulator maxTraceNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * A lookup result and the tick and eye position it was computed for.
+     */
+    private record CachedTarget(long gameTime, Location eye, int range, @Nullable LivingEntity target) {}
+
+    /**
+     * Returns the singleton instance of the TargetingManager.
+     * </p>
+     *
+     * @return the active TargetingManager instance.
+     */
+    public static synchronized TargetingManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Finds the nearest living entity in the player's line of sight. Must be called on the player's thread,
+     * after the ability's cooldown was checked, so rejected clicks never trace.
+     * </p>
+     *
+     * @param player the player looking for a target
+     * @param range the maximum distance in blocks
+     * @return the targeted entity, or null if none is in sight.
+     */
+    public @Nullable LivingEntity findTarget(Player player, int range) {
+        World world = player.getWorld();
+        long gameTime = world.getGameTime();
+        Location eye = player.getEyeLocation();
+
+        CachedTarget cached = lastLookups.get(player.getUniqueId());
+        if (cached != null && cached.gameTime() == gameTime && cached.range() == range && cached.eye().equals(eye)
+                && (cached.target() == null || cached.target().isValid())) {
+            cacheHits.increment();
+            return cached.target();
+        }
+
+        long start = System.nanoTime();
+        LivingEntity target = trace(player, world, eye, range);
+        long elapsed = System.nanoTime() - start;
+        traces.increment();
+        traceNanos.add(elapsed);
+        maxTraceNanos.accumulate(elapsed);
+
+        lastLookups.put(player.getUniqueId(), new CachedTarget(gameTime, eye, range, target));
+        return target;
+    }
+
+    /**
+     * Forgets the cached lookup of a player who left.
+     * </p>
+     *
+     * @param uuid the player's UUID
+     */
+    public void forget(UUID uuid) {
+        lastLookups.remove(uuid);
+    }
+
+    /**
+     * Returns the number of lookups that traced a ray.
+     * </p>
+     *
+     * @return the trace count since the plugin was enabled.
+     */
+    public long getTraceCount() {
+        return traces.sum();
+    }
+
+    /**
+     * Returns the number of lookups answered from the per-tick cache.
+     * </p>
+     *
+     * @return the cache hit count since the plugin was enabled.
+     */
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * Returns the average time of a trace.
+     * </p>
+     *
+     * @return the mean trace latency in microseconds, 0 if nothing was traced yet.
+     */
+    public double getAverageMicros() {
+        long count = traces.sum();
+        return count == 0 ? 0 : traceNanos.sum() / (count * 1000.0);
+    }
+
+    /**
+     * Returns the time of the slowest trace.
+     * </p>
+     *
+     * @return the maximum trace latency in microseconds.
+     */
+    public long getMaxMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxTraceNanos.get());
+    }
+
+    /**
+     * Traces the player's line of sight up to the first solid block and returns the nearest living entity on it.
+     * </p>
+     *
+     * @param player the player looking for a target
+     * @param world the player's world
+     * @param eye the player's eye location
+     * @param range the maximum distance in blocks
+     * @return the nearest living entity on the ray, or null if there is none.
+     */
+    private static @Nullable LivingEntity trace(Player player, World world, Location eye, int range) {
+        Vector origin = eye.toVector();
+        Vector direction = eye.getDirection();
+
+        // Nothing behind the first solid block can be targeted
+        RayTraceResult blockHit = world.rayTraceBlocks(eye, direction, range, FluidCollisionMode.NEVER, true);
+        double limit = blockHit != null ? blockHit.getHitPosition().distance(origin) : range;
+
+        for (double from = 0; from < limit; from += SEGMENT_LENGTH) {
+            double to = Math.min(limit, from + SEGMENT_LENGTH);
+            BoundingBox segment = BoundingBox.of(
+                    origin.clone().add(direction.clone().multiply(from)),
+                    origin.clone().add(direction.clone().multiply(to)));
+
+            LivingEntity nearest = null;
+            double nearestDistance = Double.MAX_VALUE;
+            for (Entity entity : world.getNearbyEntities(segment, entity -> isTargetable(player, entity))) {
+                RayTraceResult hit = entity.getBoundingBox().rayTrace(origin, direction, to);
+                if (hit == null) {
+                    continue;
+                }
+                double distance = hit.getHitPosition().distanceSquared(origin);
+                if (distance < nearestDistance) {
+                    nearestDistance = distance;
+                    nearest = (LivingEntity) entity;
+                }
+            }
+            // An entity crossing the ray before this segment overlaps an earlier segment's box, so this is the nearest
+            if (nearest != null) {
+                return nearest;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isTargetable(Player player, Entity entity) {
+        return entity instanceof LivingEntity && entity != player
+                && !(entity instanceof Player other && other.getGameMode() == GameMode.SPECTATOR);
+    }
+}
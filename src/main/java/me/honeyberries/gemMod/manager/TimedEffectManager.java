@@ -0,0 +1,164 @@
+package me.honeyberries.gemMod.manager;
+
+import me.honeyberries.gemMod.util.LogUtil;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <b>TimedEffectManager</b> remembers when the timed ability effects on each player run out.
+ * </p>
+ * The effects themselves are run by their abilities' tasks; this manager only keeps their end times, so they
+ * can be saved when a player leaves and resumed when they come back. Like cooldowns, each player has one
+ * {@link AtomicLongArray} of end times on {@link System#nanoTime()}, indexed by {@link TimedEffect#ordinal()}.
+ * Each end time doubles as a token: a task only ends the effect it started, not one resumed or started later.
+ * </p>
+ */
+public class TimedEffectManager {
+
+    /** <b>Singleton instance</b> */
+    private static final TimedEffectManager INSTANCE = new TimedEffectManager();
+
+    /**
+     * <b>Origin of the monotonic clock, so stored end times are positive and 0 can mean no effect.</b>
+     */
+    private static final long CLOCK_ORIGIN = System.nanoTime() - 1;
+
+    /**
+     * <b>Mapping of player UUIDs to the end times of their timed effects, 0 when not active.</b>
+     */
+    private final Map<UUID, AtomicLongArray> effects = new ConcurrentHashMap<>();
+
+    /**
+     * The timed ability effects that outlive a logout.
+     */
+    public enum TimedEffect {
+        /** The Darkness Gem cloak: invisibility with hidden equipment. */
+        INVISIBILITY,
+        /** The Water Gem freeze. */
+        FREEZE
+    }
+
+    /**
+     * Returns the singleton instance of the TimedEffectManager.
+     * </p>
+     *
+     * @return the active TimedEffectManager instance.
+     */
+    public static synchronized TimedEffectManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records that an effect started on a player.
+     * </p>
+     *
+     * @param uuid the player's UUID
+     * @param effect the effect
+     * @param durationMillis how long the effect lasts in milliseconds
+     * @return the token to pass to {@link #end(UUID, TimedEffect, long)} when the effect runs out.
+     */
+    public long begin(UUID uuid, TimedEffect effect, long durationMillis) {
+        long token = now() + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        effects.compute(uuid, (k, table) -> {
+            if (table == null) {
+                table = new AtomicLongArray(TimedEffect.values().length);
+            }
+            table.set(effect.ordinal(), token);
+            return table;
+        });
+        return token;
+    }
+
+    /**
+     * Records that an effect ended, unless it was started again since.
+     * </p>
+     *
+     * @param uuid the player's UUID
+     * @param effect the effect
+     * @param token the token returned when the effect began
+     * @return true if the effect was still the one the token belongs to; false otherwise.
+     */
+    public boolean end(UUID uuid, TimedEffect effect, long token) {
+        boolean[] ended = new boolean[1];
+        effects.computeIfPresent(uuid, (k, table) -> {
+            ended[0] = table.compareAndSet(effect.ordinal(), token, 0);
+            for (int i = 0; i < table.length(); i++) {
+                if (table.get(i) != 0) {
+                    return table;
+                }
+            }
+            return null;
+        });
+        return ended[0];
+    }
+
+    /**
+     * Returns the time left on each of a player's effects, indexed by {@link TimedEffect#ordinal()}.
+     * </p>
+     *
+     * @param uuid the player's UUID
+     * @return the remaining time in milliseconds per effect, 0 for inactive ones.
+     */
+    public long[] export(UUID uuid) {
+        long[] remaining = new long[TimedEffect.values().length];
+        AtomicLongArray table = effects.get(uuid);
+        if (table != null) {
+            long now = now();
+            for (int i = 0; i < remaining.length; i++) {
+                long end = table.get(i);
+                remaining[i] = end != 0 && end - now > 0 ? TimeUnit.NANOSECONDS.toMillis(end - now) : 0;
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Returns the time left on each of a player's effects and forgets them, e.g. when the player leaves.
+     * The effects' own tasks then find no matching token and leave the player alone.
+     * </p>
+     *
+     * @param uuid the player's UUID
+     * @return the remaining time in milliseconds per effect, 0 for inactive ones.
+     */
+    public long[] evict(UUID uuid) {
+        long[] remaining = export(uuid);
+        effects.remove(uuid);
+        return remaining;
+    }
+
+    /**
+     * Resumes the effects a player still had when their times were saved. Must be called on the player's thread.
+     * </p>
+     *
+     * @param player the player
+     * @param remainingMillis the remaining time in milliseconds per effect, 0 for inactive ones
+     */
+    public void resume(Player player, long[] remainingMillis) {
+        for (TimedEffect effect : TimedEffect.values()) {
+            if (effect.ordinal() >= remainingMillis.length || remainingMillis[effect.ordinal()] <= 0) {
+                continue;
+            }
+            int ticks = (int) Math.min(Integer.MAX_VALUE, (remainingMillis[effect.ordinal()] + 49) / 50);
+            switch (effect) {
+                case INVISIBILITY -> AbilityManager.applyDarknessCloak(player, ticks);
+                case FREEZE -> AbilityManager.freezeEntity(player, ticks);
+            }
+            LogUtil.verbose("Resumed " + effect.name() + " on " + player.getName() + " for " + ticks + " ticks");
+        }
+    }
+
+    /**
+     * Reads the monotonic clock effect end times are measured on.
+     * </p>
+     *
+     * @return nanoseconds since the clock origin, always positive.
+     */
+    private static long now() {
+        return System.nanoTime() - CLOCK_ORIGIN;
+    }
+}
@@ -0,0 +1,147 @@
+package me.honeyberries.gemMod.packet;
+
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * <b>EncodedPacketCache</b> keeps pre-encoded buffers of packets the plugin sends over and over.
+ * </p>
+ * Entries are keyed by packet kind, entity ID, client version and variant, and remember the state they were
+ * encoded for. The variant separates states that different viewers of the same entity need at the same time,
+ * such as flags with and without the glow, so those viewers do not keep replacing each other's entry. Asking for a different state replaces and releases the old buffer, so an entry is
+ * invalidated exactly when the underlying state changes. Every hit hands out a retained duplicate of the
+ * shared buffer, so a send costs no wrapper objects and no encoding.
+ * </p>
+ */
+public class EncodedPacketCache {
+
+    /** <b>Singleton instance</b> */
+    private static final EncodedPacketCache INSTANCE = new EncodedPacketCache();
+
+    /**
+     * <b>Encoded buffers by kind, entity, client version and variant.</b>
+     */
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The kinds of cached packets.
+     */
+    public enum Kind {
+        /** Entity metadata carrying only the entity flags byte; the variant is the glow bit, the state the flags. */
+        ENTITY_FLAGS,
+        /** Equipment with all six slots empty; the variant and state are unused. */
+        HIDDEN_EQUIPMENT
+    }
+
+    private record Key(Kind kind, int entityId, ClientVersion version, int variant) {
+    }
+
+    private record Entry(long state, Object buffer) {
+    }
+
+    /**
+     * Returns the singleton instance of the EncodedPacketCache.
+     * </p>
+     *
+     * @return the active EncodedPacketCache instance.
+     */
+    public static synchronized EncodedPacketCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the encoded packet for the given kind, entity, variant and state, encoding it on a miss.
+     * The caller owns the returned buffer and must write or release it.
+     * </p>
+     *
+     * @param user the connection the packet is encoded for
+     * @param kind the kind of packet
+     * @param entityId the entity the packet is about
+     * @param variant the variant of the packet, cached separately from the other variants
+     * @param state the state the packet encodes
+     * @param factory builds the packet on a miss
+     * @return a retained duplicate of the cached buffer.
+     */
+    public Object acquire(User user, Kind kind, int entityId, int variant, long state, Supplier<PacketWrapper<?>> factory) {
+        Key key = new Key(kind, entityId, user.getClientVersion(), variant);
+        Object[] acquired = new Object[1];
+        entries.compute(key, (k, entry) -> {
+            if (entry == null || entry.state() != state) {
+                if (entry != null) {
+                    ByteBufHelper.release(entry.buffer());
+                }
+                entry = new Entry(state, encode(user, factory.get()));
+            }
+            // Retain while no other thread can replace and release the entry
+            acquired[0] = ByteBufHelper.retain(ByteBufHelper.duplicate(entry.buffer()));
+            return entry;
+        });
+        return acquired[0];
+    }
+
+    /**
+     * Drops and releases every cached packet about an entity, e.g. when it leaves or its state is reset.
+     * </p>
+     *
+     * @param entityId the entity whose packets are dropped
+     */
+    public void invalidate(int entityId) {
+        for (Key key : entries.keySet()) {
+            if (key.entityId() == entityId) {
+                release(key);
+            }
+        }
+    }
+
+    /**
+     * Drops and releases every cached packet.
+     * </p>
+     */
+    public void clear() {
+        for (Key key : entries.keySet()) {
+            release(key);
+        }
+    }
+
+    /**
+     * Returns the number of cached packets.
+     * </p>
+     *
+     * @return the cache size.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes an entry and releases its buffer.
+     * </p>
+     *
+     * @param key the key of the entry
+     */
+    private void release(Key key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            ByteBufHelper.release(entry.buffer());
+        }
+    }
+
+    /**
+     * Encodes a packet, including its packet ID, for the user's connection.
+     * </p>
+     *
+     * @param user the connection the packet is encoded for
+     * @param packet the packet to encode
+     * @return the encoded buffer.
+     */
+    private static Object encode(User user, PacketWrapper<?> packet) {
+        packet.prepareForSend(user.getChannel(), true, false);
+        return packet.getBuffer();
+    }
+}
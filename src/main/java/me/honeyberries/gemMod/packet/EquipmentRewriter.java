@@ -0,0 +1,94 @@
+package me.honeyberries.gemMod.packet;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and empties entity equipment packets without depending on their classes.
+ * <p>
+ * The server's {@code ClientboundSetEquipmentPacket(int entity, List<Pair<EquipmentSlot, ItemStack>> slots)}
+ * and its {@code Pair} are bound by name once through method handles, like the {@link MetadataRewriter}.
+ * A rewritten packet keeps the slots of the original and carries the empty item in each.
+ *
+ * @author HoneyBerries
+ * @version 1.0
+ */
+public final class EquipmentRewriter {
+
+    private final Class<?> packetClass;
+    private final MethodHandle packetEntityId;
+    private final MethodHandle packetSlots;
+    private final MethodHandle newPacket;
+    private final MethodHandle pairFirst;
+    private final MethodHandle newPair;
+    private final Object emptyItem;
+
+    private EquipmentRewriter(Class<?> packetClass, Class<?> pairClass, Object emptyItem) throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        this.packetClass = packetClass;
+        this.packetEntityId = lookup.findVirtual(packetClass, "getEntity", MethodType.methodType(int.class))
+                .asType(MethodType.methodType(int.class, Object.class));
+        this.packetSlots = lookup.findVirtual(packetClass, "getSlots", MethodType.methodType(List.class))
+                .asType(MethodType.methodType(Object.class, Object.class));
+        this.newPacket = lookup.findConstructor(packetClass, MethodType.methodType(void.class, int.class, List.class))
+                .asType(MethodType.methodType(Object.class, int.class, List.class));
+        this.pairFirst = lookup.findVirtual(pairClass, "getFirst", MethodType.methodType(Object.class))
+                .asType(MethodType.methodType(Object.class, Object.class));
+        this.newPair = lookup.findStatic(pairClass, "of", MethodType.methodType(pairClass, Object.class, Object.class))
+                .asType(MethodType.methodType(Object.class, Object.class, Object.class));
+        this.emptyItem = emptyItem;
+    }
+
+    /**
+     * Binds a rewriter to an equipment packet class and its slot pair class.
+     *
+     * @param packetClass The packet class, with {@code getEntity()}, {@code getSlots()} and an {@code (int, List)} constructor.
+     * @param pairClass   The pair class, with {@code getFirst()} and a static {@code of(Object, Object)}.
+     * @param emptyItem   The item sent in place of each equipped item.
+     * @return The bound rewriter.
+     * @throws ReflectiveOperationException If the classes do not have the expected shape.
+     */
+    public static EquipmentRewriter forClasses(Class<?> packetClass, Class<?> pairClass, Object emptyItem) throws ReflectiveOperationException {
+        return new EquipmentRewriter(packetClass, pairClass, emptyItem);
+    }
+
+    /**
+     * Checks whether an outgoing message is an equipment packet.
+     *
+     * @param message The outgoing message.
+     * @return {@code true} if the message is an equipment packet.
+     */
+    public boolean isEquipmentPacket(Object message) {
+        return message.getClass() == packetClass;
+    }
+
+    /**
+     * Returns the entity an equipment packet is about.
+     *
+     * @param packet The equipment packet.
+     * @return The entity ID.
+     * @throws Throwable If the accessor fails.
+     */
+    public int getEntityId(Object packet) throws Throwable {
+        return (int) packetEntityId.invoke(packet);
+    }
+
+    /**
+     * Returns a copy of the packet with every slot it updates emptied.
+     *
+     * @param packet The equipment packet.
+     * @return The rewritten packet.
+     * @throws Throwable If an accessor or constructor fails.
+     */
+    public Object withEmptySlots(Object packet) throws Throwable {
+        List<?> slots = (List<?>) packetSlots.invoke(packet);
+        List<Object> emptied = new ArrayList<>(slots.size());
+        for (Object slot : slots) {
+            emptied.add(newPair.invoke(pairFirst.invoke(slot), emptyItem));
+        }
+        return newPacket.invoke((int) getEntityId(packet), (List<?>) emptied);
+    }
+}
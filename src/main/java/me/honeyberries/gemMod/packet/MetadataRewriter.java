@@ -0,0 +1,157 @@
+package me.honeyberries.gemMod.packet;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and rewrites entity metadata packets that are represented as records, without depending on their classes.
+ * <p>
+ * The server's {@code ClientboundSetEntityDataPacket(int id, List<DataValue> packedItems)} and
+ * {@code SynchedEntityData.DataValue(int id, EntityDataSerializer serializer, Object value)} are bound by name
+ * once through method handles, so every rewrite is a few direct calls. Benchmarks bind the same code to
+ * stand-in records.
+ *
+ * @author HoneyBerries
+ * @version 1.0
+ */
+public final class MetadataRewriter {
+
+    /**
+     * The metadata index of the entity flags byte.
+     */
+    private static final int FLAGS_INDEX = 0;
+
+    private final Class<?> packetClass;
+    private final MethodHandle packetEntityId;
+    private final MethodHandle packetItems;
+    private final MethodHandle newPacket;
+    private final MethodHandle valueIndex;
+    private final MethodHandle valueSerializer;
+    private final MethodHandle valueValue;
+    private final MethodHandle newValue;
+
+    private MetadataRewriter(Class<?> packetClass, Class<?> valueClass) throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        this.packetClass = packetClass;
+        this.packetEntityId = accessor(lookup, packetClass, "id");
+        this.packetItems = accessor(lookup, packetClass, "packedItems");
+        this.newPacket = lookup.findConstructor(packetClass, MethodType.methodType(void.class, int.class, List.class))
+                .asType(MethodType.methodType(Object.class, int.class, List.class));
+        this.valueIndex = accessor(lookup, valueClass, "id");
+        this.valueSerializer = accessor(lookup, valueClass, "serializer");
+        this.valueValue = accessor(lookup, valueClass, "value");
+        RecordComponent[] components = valueClass.getRecordComponents();
+        this.newValue = lookup.findConstructor(valueClass, MethodType.methodType(void.class,
+                        components[0].getType(), components[1].getType(), components[2].getType()))
+                .asType(MethodType.methodType(Object.class, int.class, Object.class, Object.class));
+    }
+
+    /**
+     * Binds a rewriter to a metadata packet record and its value record.
+     *
+     * @param packetClass The packet record class, with {@code id} and {@code packedItems} components.
+     * @param valueClass  The value record class, with {@code id}, {@code serializer} and {@code value} components.
+     * @return The bound rewriter.
+     * @throws ReflectiveOperationException If the classes do not have the expected shape.
+     */
+    public static MetadataRewriter forClasses(Class<?> packetClass, Class<?> valueClass) throws ReflectiveOperationException {
+        return new MetadataRewriter(packetClass, valueClass);
+    }
+
+    /**
+     * Checks whether an outgoing message is a metadata packet.
+     *
+     * @param message The outgoing message.
+     * @return {@code true} if the message is a metadata packet.
+     */
+    public boolean isMetadataPacket(Object message) {
+        return message.getClass() == packetClass;
+    }
+
+    /**
+     * Returns the entity a metadata packet is about.
+     *
+     * @param packet The metadata packet.
+     * @return The entity ID.
+     * @throws Throwable If the accessor fails.
+     */
+    public int getEntityId(Object packet) throws Throwable {
+        return (int) packetEntityId.invoke(packet);
+    }
+
+    /**
+     * Returns a copy of the packet with bits set in the entity flags byte.
+     * <p>
+     * Spawn metadata only carries values that differ from their defaults, so a spawn packet without a flags
+     * entry means the flags are all clear. Given a byte serializer, such a packet gets a flags entry holding
+     * just the bits. Other packets without a flags entry leave the flags unchanged and are returned as they are.
+     *
+     * @param packet         The metadata packet.
+     * @param bits           The flag bits to set.
+     * @param byteSerializer The serializer for byte values if the packet is spawn metadata, {@code null} otherwise.
+     * @return The rewritten packet, or the same packet if the bits are already set or it cannot carry them.
+     * @throws Throwable If an accessor or constructor fails.
+     */
+    public Object withFlags(Object packet, byte bits, @Nullable Object byteSerializer) throws Throwable {
+        List<?> items = (List<?>) packetItems.invoke(packet);
+        for (int i = 0; i < items.size(); i++) {
+            Object item = items.get(i);
+            if ((int) valueIndex.invoke(item) != FLAGS_INDEX) {
+                continue;
+            }
+            if (!(valueValue.invoke(item) instanceof Byte flags) || (flags & bits) == bits) {
+                return packet;
+            }
+            List<Object> rewritten = new ArrayList<>(items);
+            rewritten.set(i, newValue.invoke(FLAGS_INDEX, valueSerializer.invoke(item), (Object) (byte) (flags | bits)));
+            return newPacket.invoke((int) getEntityId(packet), (List<?>) rewritten);
+        }
+        if (byteSerializer == null) {
+            return packet;
+        }
+        List<Object> rewritten = new ArrayList<>(items.size() + 1);
+        rewritten.add(newValue.invoke(FLAGS_INDEX, byteSerializer, (Object) bits));
+        rewritten.addAll(items);
+        return newPacket.invoke((int) getEntityId(packet), (List<?>) rewritten);
+    }
+
+    /**
+     * Creates a metadata packet carrying only the entity flags byte.
+     *
+     * @param entityId       The entity whose flags are sent.
+     * @param byteSerializer The serializer for byte values.
+     * @param flags          The entity flags.
+     * @return The new metadata packet.
+     * @throws Throwable If a constructor fails.
+     */
+    public Object createFlagsPacket(int entityId, Object byteSerializer, byte flags) throws Throwable {
+        Object value = newValue.invoke(FLAGS_INDEX, byteSerializer, (Object) flags);
+        return newPacket.invoke(entityId, (List<?>) List.of(value));
+    }
+
+    /**
+     * Finds the accessor of a record component, typed to return {@link Object} or {@code int}.
+     *
+     * @param lookup The lookup to use.
+     * @param type   The record class.
+     * @param name   The component name.
+     * @return The accessor handle, taking the record as {@link Object}.
+     * @throws ReflectiveOperationException If the component does not exist.
+     */
+    private static MethodHandle accessor(MethodHandles.Lookup lookup, Class<?> type, String name) throws ReflectiveOperationException {
+        for (RecordComponent component : type.getRecordComponents()) {
+            if (component.getName().equals(name)) {
+                MethodHandle handle = lookup.unreflect(component.getAccessor());
+                Class<?> returnType = component.getType() == int.class ? int.class : Object.class;
+                return handle.asType(MethodType.methodType(returnType, Object.class));
+            }
+        }
+        throw new NoSuchFieldException(type.getName() + "." + name);
+    }
+}
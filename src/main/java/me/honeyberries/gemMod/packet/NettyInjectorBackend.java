@@ -0,0 +1,203 @@
+package me.honeyberries.gemMod.packet;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import me.honeyberries.gemMod.manager.EquipmentMaskManager;
+import me.honeyberries.gemMod.manager.LightGemGlowManager;
+import me.honeyberries.gemMod.util.LogUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.UUID;
+
+/**
+ * Sends and rewrites packets through a small handler added to each player's Netty channel.
+ * <p>
+ * Used when PacketEvents is not installed. The handler sits between the server's bundle unpacker and
+ * its encoder, so it sees individual packet objects rather than bytes. Metadata packets about other players
+ * get the glowing bit set for Light Gem holders, including the spawn metadata that directly follows an
+ * entity's add packet, equipment packets about masked entities are emptied,
+ * and flag updates are written as server packet objects,
+ * so nothing is wrapped or decoded. The server's classes are reached through reflection on the Mojang
+ * mapped names Paper uses at runtime.
+ *
+ * @author HoneyBerries
+ * @version 1.0
+ */
+public class NettyInjectorBackend implements PacketBackend {
+
+    /**
+     * The name of the handler in each player's pipeline.
+     */
+    private static final String HANDLER_NAME = "gemmod_packets";
+
+    /**
+     * The server handler the injected handler is placed after, towards the tail.
+     */
+    private static final String ENCODER_NAME = "encoder";
+
+    private Method getHandle;
+    private Field playerConnection;
+    private Field networkConnection;
+    private Field channelField;
+    private Object byteSerializer;
+    private Class<?> addEntityPacket;
+    private Method addEntityId;
+    private MetadataRewriter rewriter;
+    private EquipmentRewriter equipmentRewriter;
+
+    @Override
+    public String getName() {
+        return "built-in Netty injector";
+    }
+
+    @Override
+    public void enable() throws ReflectiveOperationException {
+        Class<?> serverPlayer = Class.forName("net.minecraft.server.level.ServerPlayer");
+        Class<?> commonListener = Class.forName("net.minecraft.server.network.ServerCommonPacketListenerImpl");
+        Class<?> connection = Class.forName("net.minecraft.network.Connection");
+        playerConnection = serverPlayer.getField("connection");
+        networkConnection = commonListener.getDeclaredField("connection");
+        networkConnection.setAccessible(true);
+        channelField = connection.getField("channel");
+
+        Class<?> serializers = Class.forName("net.minecraft.network.syncher.EntityDataSerializers");
+        byteSerializer = serializers.getField("BYTE").get(null);
+        addEntityPacket = Class.forName("net.minecraft.network.protocol.game.ClientboundAddEntityPacket");
+        addEntityId = addEntityPacket.getMethod("getId");
+        rewriter = MetadataRewriter.forClasses(
+                Class.forName("net.minecraft.network.protocol.game.ClientboundSetEntityDataPacket"),
+                Class.forName("net.minecraft.network.syncher.SynchedEntityData$DataValue"));
+        equipmentRewriter = EquipmentRewriter.forClasses(
+                Class.forName("net.minecraft.network.protocol.game.ClientboundSetEquipmentPacket"),
+                Class.forName("com.mojang.datafixers.util.Pair"),
+                Class.forName("net.minecraft.world.item.ItemStack").getField("EMPTY").get(null));
+    }
+
+    @Override
+    public void disable() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            uninject(player);
+        }
+    }
+
+    @Override
+    public void inject(Player player) {
+        Channel channel = getChannel(player);
+        if (channel == null) {
+            return;
+        }
+        UUID viewer = player.getUniqueId();
+        channel.eventLoop().execute(() -> {
+            if (channel.pipeline().get(HANDLER_NAME) == null && channel.pipeline().get(ENCODER_NAME) != null) {
+                channel.pipeline().addAfter(ENCODER_NAME, HANDLER_NAME, new RewriteHandler(viewer));
+            }
+        });
+    }
+
+    @Override
+    public void uninject(Player player) {
+        Channel channel = getChannel(player);
+        if (channel == null) {
+            return;
+        }
+        channel.eventLoop().execute(() -> {
+            if (channel.pipeline().get(HANDLER_NAME) != null) {
+                channel.pipeline().remove(HANDLER_NAME);
+            }
+        });
+    }
+
+    @Override
+    public void sendEntityFlags(Player viewer, int entityId, byte flags) {
+        Channel channel = getChannel(viewer);
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.writeAndFlush(rewriter.createFlagsPacket(entityId, byteSerializer, flags));
+        } catch (Throwable t) {
+            LogUtil.severe("Failed to send entity flags to " + viewer.getName() + ": " + t.getMessage());
+        }
+    }
+
+    /**
+     * Looks up the Netty channel of a player's connection.
+     *
+     * @param player The player.
+     * @return The channel, or {@code null} if the player has no open connection.
+     */
+    private Channel getChannel(Player player) {
+        try {
+            if (getHandle == null) {
+                getHandle = player.getClass().getMethod("getHandle");
+            }
+            Object listener = playerConnection.get(getHandle.invoke(player));
+            if (listener == null) {
+                return null;
+            }
+            return (Channel) channelField.get(networkConnection.get(listener));
+        } catch (ReflectiveOperationException e) {
+            LogUtil.severe("Failed to find the connection of " + player.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Sets the glowing bit in outgoing metadata about other players and empties masked equipment for one viewer.
+     */
+    private final class RewriteHandler extends ChannelOutboundHandlerAdapter {
+
+        private final UUID viewer;
+        private final LightGemGlowManager glowManager = LightGemGlowManager.getInstance();
+        private final EquipmentMaskManager maskManager = EquipmentMaskManager.getInstance();
+
+        /**
+         * The entity whose add packet was written last, so its spawn metadata can be recognised.
+         * Only used on the channel's event loop.
+         */
+        private int spawnedEntityId = -1;
+
+        private RewriteHandler(UUID viewer) {
+            this.viewer = viewer;
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            if (msg.getClass() == addEntityPacket) {
+                try {
+                    spawnedEntityId = (int) addEntityId.invoke(msg);
+                } catch (ReflectiveOperationException e) {
+                    LogUtil.severe("Failed to read added entity: " + e.getMessage());
+                }
+            } else if (rewriter.isMetadataPacket(msg)) {
+                int spawned = spawnedEntityId;
+                spawnedEntityId = -1;
+                if (glowManager.isViewer(viewer)) {
+                    try {
+                        int entityId = rewriter.getEntityId(msg);
+                        if (glowManager.shouldGlow(viewer, entityId)) {
+                            msg = rewriter.withFlags(msg, LightGemGlowManager.GLOWING_FLAG,
+                                    entityId == spawned ? byteSerializer : null);
+                        }
+                    } catch (Throwable t) {
+                        LogUtil.severe("Failed to rewrite entity metadata: " + t.getMessage());
+                    }
+                }
+            } else if (equipmentRewriter.isEquipmentPacket(msg)) {
+                try {
+                    if (maskManager.isMasked(equipmentRewriter.getEntityId(msg))) {
+                        msg = equipmentRewriter.withEmptySlots(msg);
+                    }
+                } catch (Throwable t) {
+                    LogUtil.severe("Failed to rewrite entity equipment: " + t.getMessage());
+                }
+            }
+            super.write(ctx, msg, promise);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package me.honeyberries.gemMod.packet;
+
+import org.bukkit.entity.Player;
+
+/**
+ * A way of sending and rewriting the few clientbound packets the plugin needs.
+ * <p>
+ * {@link PacketEventsBackend} is used when PacketEvents is installed. Otherwise the built-in
+ * {@link NettyInjectorBackend} adds a handler to each player's channel. Either backend rewrites
+ * outgoing entity metadata so Light Gem holders see other players glow, and empties outgoing equipment
+ * of entities masked by the {@link me.honeyberries.gemMod.manager.EquipmentMaskManager}.
+ *
+ * @author HoneyBerries
+ * @version 1.0
+ */
+public interface PacketBackend {
+
+    /**
+     * Returns a short name for log and status messages.
+     *
+     * @return The backend name.
+     */
+    String getName();
+
+    /**
+     * Prepares the backend and starts rewriting outgoing packets of injected players.
+     *
+     * @throws Exception If the backend cannot run on this server.
+     */
+    void enable() throws Exception;
+
+    /**
+     * Stops rewriting packets and detaches from every player.
+     */
+    void disable();
+
+    /**
+     * Attaches to a player's connection when they join.
+     *
+     * @param player The player who joined.
+     */
+    void inject(Player player);
+
+    /**
+     * Detaches from a player's connection when they leave.
+     *
+     * @param player The player who left.
+     */
+    void uninject(Player player);
+
+    /**
+     * Sends an entity's complete flags byte to a viewer.
+     *
+     * @param viewer   The player who receives the flags.
+     * @param entityId The entity whose flags are sent.
+     * @param flags    The entity flags, including the glowing bit if the entity should glow.
+     */
+    void sendEntityFlags(Player viewer, int entityId, byte flags);
+}
@@ -0,0 +1,295 @@
+package me.honeyberries.gemMod.packet;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
+import com.github.retrooper.packetevents.protocol.item.ItemStack;
+import com.github.retrooper.packetevents.protocol.particle.Particle;
+import com.github.retrooper.packetevents.protocol.particle.data.ParticleDustData;
+import com.github.retrooper.packetevents.protocol.particle.type.ParticleTypes;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.Equipment;
+import com.github.retrooper.packetevents.protocol.player.EquipmentSlot;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.util.Vector3d;
+import com.github.retrooper.packetevents.util.Vector3f;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerBundle;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityEquipment;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerParticle;
+import me.honeyberries.gemMod.GemMod;
+import me.honeyberries.gemMod.manager.LightGemGlowManager;
+import me.honeyberries.gemMod.packet.EncodedPacketCache.Kind;
+import me.honeyberries.gemMod.util.LogUtil;
+import org.bukkit.Color;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * <b>PacketBatcher</b> coalesces the packets the plugin sends to each viewer during a tick.
+ * </p>
+ * Packets are queued per viewer and flushed once on the viewer's next entity scheduler tick. A flush
+ * writes all queued packets between two bundle delimiters, so the client applies them atomically, and
+ * then flushes the channel once instead of once per packet. Vanilla packets never end up inside a bundle,
+ * since only queued packets are written between the delimiters.
+ * </p>
+ * Packets that are sent over and over unchanged are queued as pre-encoded buffers from the
+ * {@link EncodedPacketCache} instead of as wrappers.
+ * </p>
+ * Requires PacketEvents; callers check the {@code packetEvents} feature before touching this class, since it
+ * cannot be loaded without PacketEvents, and fall back to the Bukkit API otherwise.
+ * </p>
+ */
+public class PacketBatcher {
+
+    /** <b>Singleton instance</b> */
+    private static final PacketBatcher INSTANCE = new PacketBatcher();
+
+    /** <b>The most packets the client accepts in one bundle</b> */
+    private static final int MAX_BUNDLE_SIZE = 4096;
+
+    /** <b>Empty items for all six equipment slots</b> */
+    private static final List<Equipment> HIDDEN_EQUIPMENT = List.of(
+            new Equipment(EquipmentSlot.MAIN_HAND, ItemStack.EMPTY),
+            new Equipment(EquipmentSlot.OFF_HAND, ItemStack.EMPTY),
+            new Equipment(EquipmentSlot.HELMET, ItemStack.EMPTY),
+            new Equipment(EquipmentSlot.CHEST_PLATE, ItemStack.EMPTY),
+            new Equipment(EquipmentSlot.LEGGINGS, ItemStack.EMPTY),
+            new Equipment(EquipmentSlot.BOOTS, ItemStack.EMPTY));
+
+    /** <b>Reference to the main plugin instance</b> */
+    private final GemMod plugin = GemMod.getInstance();
+
+    /** <b>Reference to the cache of pre-encoded packets</b> */
+    private final EncodedPacketCache cache = EncodedPacketCache.getInstance();
+
+    /**
+     * <b>Packets waiting to be flushed, per viewer: wrappers or encoded buffers.</b>
+     */
+    private final Map<UUID, Queue<Object>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * <b>Viewers with a flush already scheduled.</b>
+     */
+    private final Set<UUID> scheduledFlushes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * <b>Dust particles converted from Bukkit dust options, keyed by the options instance.</b>
+     */
+    private final Map<org.bukkit.Particle.DustOptions, Particle<ParticleDustData>> dustParticles = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the singleton instance of the PacketBatcher.
+     * </p>
+     *
+     * @return the active PacketBatcher instance.
+     */
+    public static synchronized PacketBatcher getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Queues a packet for the viewer. It is sent with the viewer's other queued packets on their next tick.
+     * Safe to call from any thread.
+     * </p>
+     *
+     * @param viewer the player who receives the packet
+     * @param packet the packet to send
+     */
+    public void queue(Player viewer, PacketWrapper<?> packet) {
+        enqueue(viewer, packet);
+    }
+
+    /**
+     * Queues an entity flags update for the viewer, reusing the encoded packet for the same flags.
+     * Flags with and without the glow are cached apart, as holders and other viewers need both at once.
+     * </p>
+     *
+     * @param viewer the player who receives the flags
+     * @param entityId the entity whose flags are sent
+     * @param flags the complete entity flags byte
+     */
+    public void queueEntityFlags(Player viewer, int entityId, byte flags) {
+        User user = PacketEvents.getAPI().getPlayerManager().getUser(viewer);
+        if (user == null) {
+            return;
+        }
+        enqueue(viewer, cache.acquire(user, Kind.ENTITY_FLAGS, entityId, flags & LightGemGlowManager.GLOWING_FLAG, flags, () ->
+                new WrapperPlayServerEntityMetadata(entityId, List.of(new EntityData<>(0, EntityDataTypes.BYTE, flags)))));
+    }
+
+    /**
+     * Queues a packet clearing all six equipment slots of an entity for the viewer.
+     * The same encoded packet is reused until the entity is invalidated in the {@link EncodedPacketCache}.
+     * </p>
+     *
+     * @param viewer the player who stops seeing the equipment
+     * @param entityId the entity whose equipment is hidden
+     */
+    public void queueHiddenEquipment(Player viewer, int entityId) {
+        User user = PacketEvents.getAPI().getPlayerManager().getUser(viewer);
+        if (user == null) {
+            return;
+        }
+        enqueue(viewer, cache.acquire(user, Kind.HIDDEN_EQUIPMENT, entityId, 0, 0L, () ->
+                new WrapperPlayServerEntityEquipment(entityId, HIDDEN_EQUIPMENT)));
+    }
+
+    /**
+     * Adds a wrapper or encoded buffer to the viewer's queue and schedules a flush if needed.
+     * </p>
+     *
+     * @param viewer the player who receives the packet
+     * @param packet the wrapper or encoded buffer
+     */
+    private void enqueue(Player viewer, Object packet) {
+        UUID uuid = viewer.getUniqueId();
+        Queue<Object> queue = pending.computeIfAbsent(uuid, k -> new ConcurrentLinkedQueue<>());
+        queue.add(packet);
+        if (pending.get(uuid) != queue) {
+            // Discarded while adding, e.g. by the quit handler; nothing will flush this queue any more
+            releaseAll(queue);
+            return;
+        }
+        if (scheduledFlushes.add(uuid)
+                && viewer.getScheduler().run(plugin, scheduledTask -> flush(viewer), () -> discard(uuid)) == null) {
+            // The viewer is already retired, so neither the flush nor the retired callback will run
+            discard(uuid);
+        }
+    }
+
+    /**
+     * Queues a single dust particle that only the viewer can see.
+     * </p>
+     *
+     * @param viewer the player who sees the particle
+     * @param options the dust colour and size, reused across calls
+     * @param x the particle x coordinate
+     * @param y the particle y coordinate
+     * @param z the particle z coordinate
+     */
+    public void queueDust(Player viewer, org.bukkit.Particle.DustOptions options, double x, double y, double z) {
+        Particle<ParticleDustData> particle = dustParticles.computeIfAbsent(options, dust -> {
+            Color color = dust.getColor();
+            return new Particle<>(ParticleTypes.DUST, new ParticleDustData(dust.getSize(),
+                    color.getRed() / 255f, color.getGreen() / 255f, color.getBlue() / 255f));
+        });
+        queue(viewer, new WrapperPlayServerParticle(particle, false, new Vector3d(x, y, z), Vector3f.zero(), 0f, 1));
+    }
+
+    /**
+     * Sends all packets queued for the viewer, bundled and with a single channel flush.
+     * </p>
+     *
+     * @param viewer the player whose packets are sent
+     */
+    public void flush(Player viewer) {
+        UUID uuid = viewer.getUniqueId();
+        // Clear the flag first, so packets queued while flushing schedule another flush
+        scheduledFlushes.remove(uuid);
+        Queue<Object> queue = pending.get(uuid);
+        if (queue == null || queue.isEmpty()) {
+            return;
+        }
+
+        List<Object> packets = new ArrayList<>(queue.size());
+        Object packet;
+        while ((packet = queue.poll()) != null) {
+            packets.add(packet);
+        }
+
+        User user = PacketEvents.getAPI().getPlayerManager().getUser(viewer);
+        if (user == null) {
+            LogUtil.verbose("Dropping " + packets.size() + " queued packets for " + viewer.getName() + ": no connection");
+            packets.forEach(PacketBatcher::release);
+            return;
+        }
+        if (packets.size() == 1) {
+            write(user, packets.getFirst());
+            user.flushPackets();
+            return;
+        }
+
+        boolean bundles = user.getClientVersion().isNewerThanOrEquals(ClientVersion.V_1_19_4);
+        for (int start = 0; start < packets.size(); start += MAX_BUNDLE_SIZE) {
+            int end = Math.min(start + MAX_BUNDLE_SIZE, packets.size());
+            if (bundles) {
+                user.writePacket(new WrapperPlayServerBundle());
+            }
+            for (int i = start; i < end; i++) {
+                write(user, packets.get(i));
+            }
+            if (bundles) {
+                user.writePacket(new WrapperPlayServerBundle());
+            }
+        }
+        user.flushPackets();
+    }
+
+    /**
+     * Drops all packets queued for a viewer, e.g. when they leave before the flush runs.
+     * </p>
+     *
+     * @param uuid the UUID of the viewer
+     */
+    public void discard(UUID uuid) {
+        scheduledFlushes.remove(uuid);
+        Queue<Object> queue = pending.remove(uuid);
+        if (queue != null) {
+            releaseAll(queue);
+        }
+    }
+
+    /**
+     * Empties a queue that will not be flushed, releasing its encoded buffers.
+     * </p>
+     *
+     * @param queue the queue to empty
+     */
+    private static void releaseAll(Queue<Object> queue) {
+        Object packet;
+        while ((packet = queue.poll()) != null) {
+            release(packet);
+        }
+    }
+
+    /**
+     * Writes a wrapper or encoded buffer to the user's channel without flushing.
+     * Encoded buffers skip the packet listeners, as they are already final.
+     * </p>
+     *
+     * @param user the connection to write to
+     * @param packet the wrapper or encoded buffer
+     */
+    private static void write(User user, Object packet) {
+        if (packet instanceof PacketWrapper<?> wrapper) {
+            user.writePacket(wrapper);
+        } else {
+            ProtocolManager protocolManager = PacketEvents.getAPI().getProtocolManager();
+            protocolManager.writePacket(user.getChannel(), packet);
+        }
+    }
+
+    /**
+     * Releases an encoded buffer that will not be written.
+     * </p>
+     *
+     * @param packet the wrapper or encoded buffer
+     */
+    private static void release(Object packet) {
+        if (!(packet instanceof PacketWrapper<?>)) {
+            ByteBufHelper.release(packet);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package me.honeyberries.gemMod.packet;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.event.PacketListenerCommon;
+import me.honeyberries.gemMod.listener.EquipmentMaskPacketListener;
+import me.honeyberries.gemMod.listener.LightGemPacketListener;
+import org.bukkit.entity.Player;
+
+/**
+ * Sends and rewrites packets through PacketEvents.
+ * <p>
+ * Metadata is rewritten by the {@link LightGemPacketListener} and equipment by the
+ * {@link EquipmentMaskPacketListener}, and flag updates are queued pre-encoded in the {@link PacketBatcher}.
+ * PacketEvents injects players on its own.
+ *
+ * @author HoneyBerries
+ * @version 1.0
+ */
+public class PacketEventsBackend implements PacketBackend {
+
+    /**
+     * The registered metadata listener, kept so it can be unregistered.
+     */
+    private PacketListenerCommon glowListener;
+
+    /**
+     * The registered equipment listener, kept so it can be unregistered.
+     */
+    private PacketListenerCommon maskListener;
+
+    @Override
+    public String getName() {
+        return "PacketEvents";
+    }
+
+    @Override
+    public void enable() {
+        glowListener = PacketEvents.getAPI().getEventManager().registerListener(new LightGemPacketListener());
+        maskListener = PacketEvents.getAPI().getEventManager().registerListener(new EquipmentMaskPacketListener());
+    }
+
+    @Override
+    public void disable() {
+        if (glowListener != null) {
+            PacketEvents.getAPI().getEventManager().unregisterListeners(glowListener, maskListener);
+            glowListener = null;
+            maskListener = null;
+        }
+    }
+
+    @Override
+    public void inject(Player player) {
+        // PacketEvents injects every connection itself
+    }
+
+    @Override
+    public void uninject(Player player) {
+        // PacketEvents injects every connection itself
+    }
+
+    @Override
+    public void sendEntityFlags(Player viewer, int entityId, byte flags) {
+        PacketBatcher.getInstance().queueEntityFlags(viewer, entityId, flags);
+    }
+}
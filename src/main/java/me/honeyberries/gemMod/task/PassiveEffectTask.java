@@ -0,0 +1,262 @@
+package me.honeyberries.gemMod.task;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import me.honeyberries.gemMod.GemMod;
+import me.honeyberries.gemMod.manager.AdaptiveIntervalManager;
+import me.honeyberries.gemMod.manager.AdaptiveIntervalManager.AdaptiveInterval;
+import me.honeyberries.gemMod.manager.AdaptiveIntervalManager.TaskKind;
+import me.honeyberries.gemMod.manager.GemHoldingsManager;
+import me.honeyberries.gemMod.manager.GemManager.GemType;
+import me.honeyberries.gemMod.util.LogUtil;
+import org.bukkit.entity.Player;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Grants the passive potion effects of every gem from a single table.
+ *
+ * Instead of one task per gem re-applying fresh effects every tick, this task runs one pass per
+ * holder and only re-applies an effect once it is missing or about to run out. The effects
+ * themselves are built once and shared, since {@link PotionEffect} is immutable.
+ *
+ * Each player gets one long-lived callback on their own entity scheduler, attached when they join and
+ * retired when they leave, so every region thread only processes the players it owns.
+ * The check interval adapts to the load of the player's region through the {@link AdaptiveIntervalManager}:
+ * after each pass the callback schedules itself again with the new delay. The callback and its retired
+ * handler are reused, but every run is a new delayed task on the scheduler, so there is one small scheduler
+ * allocation per pass instead of one task for the player's whole session. A fixed-rate task could stay the
+ * same object, but it would wake every tick only to skip most runs.
+ *
+ * @author HoneyBerries
+ * @version 1.0
+ */
+public class PassiveEffectTask {
+
+    /**
+     * A reference to the main plugin instance.
+     */
+    private static final GemMod plugin = GemMod.getInstance();
+
+    /**
+     * The duration of the passive potion effects, in ticks (15 seconds).
+     */
+    private static final int POTION_DURATION_TICKS = 15 * 20;
+
+    /**
+     * Effects with less than this many ticks left are refreshed (5 seconds), so each one is re-sent about every 10 seconds.
+     */
+    private static final int REFRESH_THRESHOLD_TICKS = 5 * 20;
+
+    /**
+     * The passive effects granted by each gem type, indexed by {@link GemType#ordinal()}.
+     */
+    private static final PotionEffect[][] PASSIVE_EFFECTS = new PotionEffect[GemType.values().length][];
+
+    /**
+     * The holdings bitmask of every gem type that grants passive effects.
+     */
+    private static final int PASSIVE_GEM_MASK;
+
+    /**
+     * The long-lived passive callback of every online player.
+     */
+    private static final Map<UUID, PlayerPassives> playerTasks = new ConcurrentHashMap<>();
+
+    /**
+     * Whether potion passives are enabled, so joining players get a task attached.
+     */
+    private static volatile boolean started = false;
+
+    /**
+     * All gem types, cached to avoid copying {@link GemType#values()} on every pass.
+     */
+    private static final GemType[] GEM_TYPES = GemType.values();
+
+    static {
+        for (GemType gemType : GEM_TYPES) {
+            passive(gemType);
+        }
+        passive(GemType.EARTH,
+                effect(PotionEffectType.HASTE, 1),
+                effect(PotionEffectType.SPEED, 1),
+                effect(PotionEffectType.STRENGTH, 1));
+        passive(GemType.FIRE,
+                effect(PotionEffectType.FIRE_RESISTANCE, 0));
+        passive(GemType.WATER,
+                effect(PotionEffectType.WATER_BREATHING, 0),
+                effect(PotionEffectType.DOLPHINS_GRACE, 0));
+
+        int mask = 0;
+        for (GemType gemType : GEM_TYPES) {
+            if (PASSIVE_EFFECTS[gemType.ordinal()].length > 0) {
+                mask |= GemHoldingsManager.bit(gemType);
+            }
+        }
+        PASSIVE_GEM_MASK = mask;
+    }
+
+    /**
+     * Enables potion passives and attaches a passive task to every player that is already online.
+     * <p>
+     * Players joining later are attached by {@link #attach(Player)}.
+     */
+    public static void startPassiveEffectTask() {
+        LogUtil.verbose("Starting passive effect tasks");
+        started = true;
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            attach(player);
+        }
+        LogUtil.verbose("Passive effect tasks started for " + playerTasks.size() + " players");
+    }
+
+    /**
+     * Attaches the player's long-lived passive callback to their entity scheduler.
+     * <p>
+     * The task follows the player across regions and reads only their own holdings. After each check it
+     * reschedules itself with its adaptive interval, so it wakes up only when it runs; removed effects
+     * come back within that interval.
+     *
+     * @param player The player who joined.
+     */
+    public static void attach(Player player) {
+        if (!started) {
+            return;
+        }
+        PlayerPassives passives = new PlayerPassives(player);
+        PlayerPassives previous = playerTasks.put(player.getUniqueId(), passives);
+        if (previous != null) {
+            previous.cancel();
+        }
+        passives.schedule(passives.interval.getInterval());
+    }
+
+    /**
+     * Retires the player's passive task when they leave.
+     * <p>
+     * Only the task attached for this player object is removed, so a late quit never retires the task of a rejoin.
+     *
+     * @param player The player who left.
+     */
+    public static void detach(Player player) {
+        PlayerPassives passives = playerTasks.get(player.getUniqueId());
+        if (passives != null && passives.player == player && playerTasks.remove(player.getUniqueId(), passives)) {
+            passives.cancel();
+        }
+    }
+
+    /**
+     * Re-applies the passive effects of the held gems that are missing or about to expire.
+     * <p>
+     * Must be called from the player's region thread.
+     *
+     * @param player   The player to refresh.
+     * @param holdings The bitmask of held gem types that grant passive effects.
+     */
+    private static void refreshPassiveEffects(Player player, int holdings) {
+        for (GemType gemType : GEM_TYPES) {
+            if ((holdings & GemHoldingsManager.bit(gemType)) == 0) {
+                continue;
+            }
+            for (PotionEffect effect : PASSIVE_EFFECTS[gemType.ordinal()]) {
+                if (needsRefresh(player, effect)) {
+                    player.addPotionEffect(effect);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether an effect has been removed, is weaker than wanted, or is about to run out.
+     *
+     * @param player The player to check.
+     * @param wanted The passive effect the player should have.
+     * @return {@code true} if the effect should be re-applied.
+     */
+    private static boolean needsRefresh(Player player, PotionEffect wanted) {
+        PotionEffect current = player.getPotionEffect(wanted.getType());
+        if (current == null) {
+            return true;
+        }
+        if (current.getAmplifier() != wanted.getAmplifier()) {
+            // Leave stronger effects from other sources alone.
+            return current.getAmplifier() < wanted.getAmplifier();
+        }
+        return !current.isInfinite() && current.getDuration() < REFRESH_THRESHOLD_TICKS;
+    }
+
+    /**
+     * Registers the passive effects of a gem type in the table.
+     *
+     * @param gemType The gem type granting the effects.
+     * @param effects The effects granted while the gem is carried.
+     */
+    private static void passive(GemType gemType, PotionEffect... effects) {
+        PASSIVE_EFFECTS[gemType.ordinal()] = effects;
+    }
+
+    /**
+     * Creates an ambient passive effect without particles.
+     *
+     * @param type      The potion effect type.
+     * @param amplifier The effect amplifier, 0 for level 1.
+     * @return The shared {@link PotionEffect}.
+     */
+    private static PotionEffect effect(PotionEffectType type, int amplifier) {
+        return new PotionEffect(type, POTION_DURATION_TICKS, amplifier, true, false, true);
+    }
+
+    /**
+     * The passive task of one player session, stored under the player's UUID until it retires.
+     */
+    private static final class PlayerPassives implements Consumer<ScheduledTask> {
+
+        private final Player player;
+        private final AdaptiveInterval interval = AdaptiveIntervalManager.getInstance().newInterval(TaskKind.PASSIVES);
+        private final Runnable retired;
+        private volatile ScheduledTask task;
+        private volatile boolean cancelled;
+
+        private PlayerPassives(Player player) {
+            this.player = player;
+            UUID uuid = player.getUniqueId();
+            this.retired = () -> playerTasks.remove(uuid, this);
+        }
+
+        @Override
+        public void accept(ScheduledTask scheduledTask) {
+            if (cancelled) {
+                return;
+            }
+            int holdings = GemHoldingsManager.getInstance().getHoldings(player) & PASSIVE_GEM_MASK;
+            if (holdings != 0) {
+                refreshPassiveEffects(player, holdings);
+            }
+            schedule(interval.next(player));
+        }
+
+        /**
+         * Schedules the next check, or retires the task if the player is no longer scheduled.
+         *
+         * @param delay The delay in ticks.
+         */
+        private void schedule(long delay) {
+            task = player.getScheduler().runDelayed(plugin, this, retired, delay);
+            if (task == null) {
+                retired.run();
+            }
+        }
+
+        private void cancel() {
+            cancelled = true;
+            ScheduledTask scheduled = task;
+            if (scheduled != null) {
+                scheduled.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package me.honeyberries.gemMod.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * A hashed hierarchical timing wheel that runs tasks after a number of server ticks.
+ * <p>
+ * The wheel has four levels of 64 slots. Level 0 holds tasks due within 64 ticks, one slot per tick; each
+ * higher level covers 64 times the span of the one below and is cascaded down one slot at a time as the lower
+ * level wraps. Scheduling, cancelling and firing are O(1) per task, and a task is moved down at most
+ * three times. The wheel only holds pending tasks: a task leaves it when it fires, and a cancelled task is
+ * dropped when its slot is reached.
+ * <p>
+ * {@link #schedule(long, Runnable)} may be called from any thread; new tasks are handed over through a
+ * lock-free queue. {@link #tick()} and therefore every task run on the one thread that drives the wheel.
+ * A handle that is not pending can be scheduled again with {@link #schedule(Timeout, long)}, so callers that
+ * run the same task over and over keep one handle instead of allocating a new one each time.
+ *
+ * <h3>Usage Examples</h3>
+ * <pre>
+ *     TimingWheel wheel = new TimingWheel();
+ *     scheduler.runAtFixedRate(plugin, task -> wheel.tick(), 1, 1);
+ *
+ *     TimingWheel.Timeout timeout = wheel.schedule(200, () -> LogUtil.info("Ten seconds passed"));
+ *     timeout.cancel();
+ * </pre>
+ *
+ * @author HoneyBerries
+ * @version 1.0
+ */
+public final class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    /**
+     * The furthest delay the wheel holds directly; later tasks wait in the overflow list.
+     */
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    /**
+     * Bucket heads by level and slot. Each bucket is an intrusive singly linked list.
+     */
+    private final Timeout[][] buckets = new Timeout[LEVELS][SLOTS];
+
+    /**
+     * Tasks scheduled more than {@link #SPAN} ticks ahead, placed once the top level wraps.
+     */
+    private Timeout overflow;
+
+    /**
+     * Tasks scheduled since the last tick, from any thread.
+     */
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+
+    private long currentTick;
+    private int size;
+
+    /**
+     * Schedules a task to run after a number of ticks. Safe to call from any thread.
+     *
+     * @param delayTicks The delay in ticks; values below 1 run the task on the next tick.
+     * @param task       The task to run on the thread that drives the wheel.
+     * @return A handle that can cancel the task.
+     */
+    public Timeout schedule(long delayTicks, Runnable task) {
+        Timeout timeout = new Timeout(task);
+        schedule(timeout, delayTicks);
+        return timeout;
+    }
+
+    /**
+     * Creates a handle for a task without scheduling it, to be passed to {@link #schedule(Timeout, long)}.
+     *
+     * @param task The task to run on the thread that drives the wheel.
+     * @return A handle that is not pending.
+     */
+    public Timeout newTimeout(Runnable task) {
+        return new Timeout(task);
+    }
+
+    /**
+     * Schedules a handle to run its task after a number of ticks, unless it is still pending. Safe to call from
+     * any thread, including from the handle's own task. Scheduling clears an earlier cancellation.
+     *
+     * @param timeout    A handle of this wheel.
+     * @param delayTicks The delay in ticks; values below 1 run the task on the next tick.
+     * @return {@code true} if the handle was scheduled, {@code false} if it is still waiting to run or be dropped.
+     */
+    public boolean schedule(Timeout timeout, long delayTicks) {
+        if (!Timeout.PENDING.compareAndSet(timeout, 0, 1)) {
+            return false;
+        }
+        timeout.delay = Math.max(1, delayTicks);
+        timeout.cancelled = false;
+        incoming.add(timeout);
+        return true;
+    }
+
+    /**
+     * Advances the wheel by one tick and runs every task that became due.
+     * Must always be called from the same thread.
+     */
+    public void tick() {
+        currentTick++;
+        if ((currentTick & SLOT_MASK) == 0) {
+            cascade(1);
+        }
+
+        // Tasks scheduled since the last tick count their delay from it
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            timeout.deadline = currentTick - 1 + timeout.delay;
+            place(timeout);
+        }
+
+        Timeout due = detach(0, (int) (currentTick & SLOT_MASK));
+        while (due != null) {
+            Timeout next = due.next;
+            due.next = null;
+            due.pending = 0;
+            if (!due.cancelled) {
+                try {
+                    due.task.run();
+                } catch (Throwable t) {
+                    LogUtil.severe("Timing wheel task failed: " + t);
+                }
+            }
+            due = next;
+        }
+    }
+
+    /**
+     * Returns the number of tasks in the wheel, including cancelled ones whose slot was not reached yet.
+     *
+     * @return The number of pending tasks.
+     */
+    public int size() {
+        return size + incoming.size();
+    }
+
+    /**
+     * Moves the current slot of a level down to the levels below, after cascading the level above
+     * if this one has wrapped.
+     *
+     * @param level The level to cascade, at least 1.
+     */
+    private void cascade(int level) {
+        int slot = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        if (slot == 0) {
+            if (level + 1 < LEVELS) {
+                cascade(level + 1);
+            } else {
+                Timeout waiting = overflow;
+                overflow = null;
+                size -= count(waiting);
+                replace(waiting);
+            }
+        }
+        replace(detach(level, slot));
+    }
+
+    /**
+     * Places a detached list of tasks again, dropping cancelled ones.
+     *
+     * @param list The first task of the list, or {@code null}.
+     */
+    private void replace(Timeout list) {
+        while (list != null) {
+            Timeout next = list.next;
+            list.next = null;
+            if (!list.cancelled) {
+                place(list);
+            } else {
+                list.pending = 0;
+            }
+            list = next;
+        }
+    }
+
+    /**
+     * Puts a task into the bucket matching its deadline, or the overflow list if it is too far ahead.
+     *
+     * @param timeout The task to place.
+     */
+    private void place(Timeout timeout) {
+        size++;
+        long delta = Math.max(0, timeout.deadline - currentTick);
+        if (delta >= SPAN) {
+            timeout.next = overflow;
+            overflow = timeout;
+            return;
+        }
+        int level = 0;
+        while (delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        long deadline = currentTick + delta;
+        int slot = (int) ((deadline >>> (SLOT_BITS * level)) & SLOT_MASK);
+        timeout.next = buckets[level][slot];
+        buckets[level][slot] = timeout;
+    }
+
+    /**
+     * Empties a bucket and returns its tasks.
+     *
+     * @param level The wheel level.
+     * @param slot  The slot within the level.
+     * @return The first task of the bucket, or {@code null} if it was empty.
+     */
+    private Timeout detach(int level, int slot) {
+        Timeout list = buckets[level][slot];
+        buckets[level][slot] = null;
+        size -= count(list);
+        return list;
+    }
+
+    /**
+     * Counts the tasks of a list.
+     *
+     * @param list The first task of the list, or {@code null}.
+     * @return The number of tasks.
+     */
+    private static int count(Timeout list) {
+        int count = 0;
+        for (Timeout timeout = list; timeout != null; timeout = timeout.next) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * A scheduled task, which can be cancelled until it runs and scheduled again once it has run.
+     */
+    public static final class Timeout {
+
+        private static final AtomicIntegerFieldUpdater<Timeout> PENDING =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "pending");
+
+        private final Runnable task;
+        private long delay;
+        private volatile boolean cancelled;
+        private long deadline;
+        private Timeout next;
+
+        /**
+         * 1 from scheduling until the task runs or is dropped, 0 otherwise.
+         */
+        private volatile int pending;
+
+        private Timeout(Runnable task) {
+            this.task = task;
+        }
+
+        /**
+         * Cancels the task. Safe to call from any thread; the task is dropped when its slot is reached, and the
+         * handle stays pending until then.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * Checks whether the task was cancelled.
+         *
+         * @return {@code true} if {@link #cancel()} was called.
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Checks whether the task is waiting to run or be dropped.
+         *
+         * @return {@code true} if the handle is scheduled and has not yet left the wheel.
+         */
+        public boolean isPending() {
+            return pending != 0;
+        }
+    }
+}
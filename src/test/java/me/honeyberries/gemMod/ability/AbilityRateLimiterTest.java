@@ -0,0 +1,114 @@
+package me.honeyberries.gemMod.ability;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the token buckets of the {@link AbilityRateLimiter}: bursts, refill over time and concurrent takers.
+ */
+class AbilityRateLimiterTest {
+
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(250);
+    private static final int BURST = 3;
+    private static final long NOW = TimeUnit.SECONDS.toNanos(100);
+
+    private final AtomicLongArray table = new AtomicLongArray(1);
+
+    @Test
+    void allowsABurstThenDrops() {
+        assertEquals(BURST, drain(NOW));
+        assertFalse(acquire(NOW + INTERVAL - 1));
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        drain(NOW);
+
+        assertTrue(acquire(NOW + INTERVAL));
+        assertFalse(acquire(NOW + INTERVAL));
+        assertFalse(acquire(NOW + 2 * INTERVAL - 1));
+        assertTrue(acquire(NOW + 2 * INTERVAL));
+    }
+
+    @Test
+    void refillsPartlyAfterAShortPause() {
+        drain(NOW);
+
+        assertEquals(2, drain(NOW + 2 * INTERVAL));
+    }
+
+    @Test
+    void neverHoldsMoreThanTheBurstAfterAnIdlePeriod() {
+        drain(NOW);
+
+        assertEquals(BURST, drain(NOW + 1_000 * INTERVAL));
+    }
+
+    @Test
+    void allowsOneTokenPerIntervalAtASteadyRate() {
+        int taken = 0;
+        for (long now = NOW; now < NOW + 100 * INTERVAL; now += INTERVAL / 10) {
+            if (acquire(now)) {
+                taken++;
+            }
+        }
+        // The full burst, then one per interval for the 99 intervals after the first click
+        assertEquals(BURST + 99, taken);
+    }
+
+    @Test
+    void handsOutEachTokenOnceUnderContention() throws InterruptedException {
+        int threads = 8;
+        AtomicInteger taken = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int attempt = 0; attempt < 1_000; attempt++) {
+                    if (acquire(NOW)) {
+                        taken.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(BURST, taken.get());
+    }
+
+    private boolean acquire(long now) {
+        return AbilityRateLimiter.acquire(table, 0, now, INTERVAL, (BURST - 1) * INTERVAL);
+    }
+
+    /**
+     * Takes tokens at one instant until the bucket refuses.
+     *
+     * @param now The clock time.
+     * @return The number of tokens taken.
+     */
+    private int drain(long now) {
+        int taken = 0;
+        while (acquire(now)) {
+            taken++;
+        }
+        return taken;
+    }
+}
@@ -0,0 +1,89 @@
+package me.honeyberries.gemMod.configuration;
+
+import me.honeyberries.gemMod.configuration.TimerStore.TimerRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that a {@link TimerRecord} survives being written and read back, and converts remaining times both ways.
+ */
+class TimerRecordTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    void readsBackWhatWasWritten() throws IOException {
+        TimerRecord record = new TimerRecord(
+                new long[] {0, NOW + 5_000, 0, NOW + 90_000, 0, 0, Long.MAX_VALUE},
+                new long[] {NOW + 1, 0});
+
+        TimerRecord read = roundTrip(record);
+
+        assertArrayEquals(record.cooldownEnds(), read.cooldownEnds());
+        assertArrayEquals(record.effectEnds(), read.effectEnds());
+    }
+
+    @Test
+    void readsBackEmptyArrays() throws IOException {
+        TimerRecord read = roundTrip(new TimerRecord(new long[0], new long[0]));
+
+        assertEquals(0, read.cooldownEnds().length);
+        assertEquals(0, read.effectEnds().length);
+    }
+
+    @Test
+    void leavesTheInputAfterTheRecord() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            new TimerRecord(new long[] {NOW}, new long[] {NOW}).write(out);
+            new TimerRecord(new long[] {1, 2}, new long[] {3}).write(out);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            TimerRecord.read(in);
+            TimerRecord second = TimerRecord.read(in);
+
+            assertArrayEquals(new long[] {1, 2}, second.cooldownEnds());
+            assertArrayEquals(new long[] {3}, second.effectEnds());
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    void convertsRemainingTimesToEndsAndBack() throws IOException {
+        TimerRecord record = TimerRecord.fromRemaining(NOW, new long[] {0, 5_000, 0}, new long[] {250});
+
+        assertArrayEquals(new long[] {0, NOW + 5_000, 0}, record.cooldownEnds());
+
+        TimerRecord read = roundTrip(record);
+        assertArrayEquals(new long[] {0, 3_000, 0}, read.cooldownRemaining(NOW + 2_000));
+        assertArrayEquals(new long[] {0}, read.effectRemaining(NOW + 2_000));
+    }
+
+    @Test
+    void expiresOnceEveryEndHasPassed() {
+        TimerRecord record = TimerRecord.fromRemaining(NOW, new long[] {1_000}, new long[] {3_000});
+
+        assertFalse(record.isExpired(NOW + 2_999));
+        assertTrue(record.isExpired(NOW + 3_000));
+    }
+
+    private static TimerRecord roundTrip(TimerRecord record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            record.write(out);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return TimerRecord.read(in);
+        }
+    }
+}
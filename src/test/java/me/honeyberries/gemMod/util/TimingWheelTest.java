@@ -0,0 +1,158 @@
+package me.honeyberries.gemMod.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the {@link TimingWheel} runs each task on the tick it is due, on every level and beyond its span.
+ */
+class TimingWheelTest {
+
+    /**
+     * The span of the wheel's four levels of 64 slots.
+     */
+    private static final long SPAN = 1L << 24;
+
+    private final TimingWheel wheel = new TimingWheel();
+    private long tick;
+
+    @Test
+    void runsTasksOnEveryLevelOnTheTickTheyAreDue() {
+        long[] delays = {1, 2, 63, 64, 65, 127, 4095, 4096, 4097, 262_143, 262_144, 262_145, SPAN - 1};
+        List<Long> fired = new ArrayList<>();
+        for (long delay : delays) {
+            wheel.schedule(delay, () -> fired.add(tick));
+        }
+
+        advanceTo(SPAN);
+
+        assertEquals(delays.length, fired.size());
+        for (int i = 0; i < delays.length; i++) {
+            assertEquals(delays[i], fired.get(i));
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cascadesTasksScheduledPartWayThroughALevel() {
+        advanceTo(4000);
+        List<Long> fired = new ArrayList<>();
+        wheel.schedule(100, () -> fired.add(tick));
+        wheel.schedule(70_000, () -> fired.add(tick));
+
+        advanceTo(80_000);
+
+        assertEquals(List.of(4100L, 74_000L), fired);
+    }
+
+    @Test
+    void holdsTasksBeyondTheSpanInOverflow() {
+        advanceTo(1000);
+        List<Long> fired = new ArrayList<>();
+        wheel.schedule(SPAN + 10, () -> fired.add(tick));
+        wheel.schedule(2 * SPAN + 3, () -> fired.add(tick));
+
+        advanceTo(1000 + SPAN + 9);
+        assertTrue(fired.isEmpty());
+        assertEquals(2, wheel.size());
+
+        advanceTo(1000 + 2 * SPAN + 3);
+        assertEquals(List.of(1000 + SPAN + 10, 1000 + 2 * SPAN + 3), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void treatsDelaysBelowOneAsTheNextTick() {
+        List<Long> fired = new ArrayList<>();
+        wheel.schedule(0, () -> fired.add(tick));
+        wheel.schedule(-5, () -> fired.add(tick));
+
+        advanceTo(1);
+
+        assertEquals(List.of(1L, 1L), fired);
+    }
+
+    @Test
+    void dropsCancelledTasks() {
+        List<Long> fired = new ArrayList<>();
+        TimingWheel.Timeout near = wheel.schedule(10, () -> fired.add(tick));
+        TimingWheel.Timeout far = wheel.schedule(10_000, () -> fired.add(tick));
+        near.cancel();
+        far.cancel();
+
+        advanceTo(10_000);
+
+        assertTrue(fired.isEmpty());
+        assertTrue(near.isCancelled());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void reschedulesAHandleOnlyOnceItHasRun() {
+        List<Long> fired = new ArrayList<>();
+        TimingWheel.Timeout timeout = wheel.newTimeout(() -> fired.add(tick));
+
+        assertFalse(timeout.isPending());
+        assertTrue(wheel.schedule(timeout, 5));
+        assertFalse(wheel.schedule(timeout, 1));
+        assertTrue(timeout.isPending());
+
+        advanceTo(5);
+        assertFalse(timeout.isPending());
+        assertTrue(wheel.schedule(timeout, 100));
+
+        advanceTo(200);
+        assertEquals(List.of(5L, 105L), fired);
+    }
+
+    @Test
+    void reschedulesAHandleFromItsOwnTask() {
+        List<Long> fired = new ArrayList<>();
+        TimingWheel.Timeout[] timeout = new TimingWheel.Timeout[1];
+        timeout[0] = wheel.newTimeout(() -> {
+            fired.add(tick);
+            if (fired.size() < 3) {
+                wheel.schedule(timeout[0], 64);
+            }
+        });
+        wheel.schedule(timeout[0], 10);
+
+        advanceTo(1000);
+
+        assertEquals(List.of(10L, 74L, 138L), fired);
+    }
+
+    @Test
+    void releasesACancelledHandleWhenItsSlotIsReached() {
+        List<Long> fired = new ArrayList<>();
+        TimingWheel.Timeout timeout = wheel.newTimeout(() -> fired.add(tick));
+        wheel.schedule(timeout, 5);
+        timeout.cancel();
+
+        advanceTo(5);
+        assertFalse(timeout.isPending());
+        assertTrue(wheel.schedule(timeout, 5));
+        assertFalse(timeout.isCancelled());
+
+        advanceTo(10);
+        assertEquals(List.of(10L), fired);
+    }
+
+    /**
+     * Ticks the wheel until the given tick.
+     *
+     * @param target The tick to stop at.
+     */
+    private void advanceTo(long target) {
+        while (tick < target) {
+            tick++;
+            wheel.tick();
+        }
+    }
+}